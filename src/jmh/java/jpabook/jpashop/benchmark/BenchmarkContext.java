@@ -0,0 +1,134 @@
+package jpabook.jpashop.benchmark;
+
+import jpabook.jpashop.JpashopApplication;
+import jpabook.jpashop.domain.*;
+import jpabook.jpashop.domain.item.Book;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 벤치마크용 스프링 컨텍스트
+ * 매 trial마다 새 H2 메모리 DB를 띄우고 (주문 수 x 주문당 상품 수) 만큼 데이터를 넣음
+ * Hibernate Statistics를 켜서 실행된 SQL 수를 셀 수 있게 함
+ */
+public class BenchmarkContext implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+    private final Statistics statistics;
+
+    public BenchmarkContext(String... extraProperties) {
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "spring.jpa.properties.hibernate.generate_statistics=true",
+                "spring.jpa.properties.hibernate.format_sql=false",
+                "decorator.datasource.enabled=false",
+                "jpashop.journal.enabled=false",
+                "jpashop.export.fetch-size=1000", // H2는 음수 fetch 크기(MySQL 스트리밍)를 받지 않음
+                "logging.level.root=warn",
+                "logging.level.org.hibernate.SQL=warn",
+                "logging.level.org.hibernate.type=warn"));
+        properties.addAll(List.of(extraProperties));
+
+        context = new SpringApplicationBuilder(JpashopApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(properties.toArray(new String[0]))
+                .run();
+
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate.setReadOnly(true);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public TransactionTemplate tx() {
+        return transactionTemplate;
+    }
+
+    public TransactionTemplate readOnlyTx() {
+        return readOnlyTemplate;
+    }
+
+    // 지금까지 DB로 보낸 SQL(PreparedStatement) 수
+    public long statementCount() {
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * orders개의 주문, 주문마다 itemsPerOrder개의 주문상품 생성
+     * 회원은 주문 10개당 1명, 상품은 itemsPerOrder * 10개를 돌려가며 사용
+     */
+    public void seed(int orders, int itemsPerOrder) {
+        EntityManager em = getBean(EntityManager.class);
+        int itemCount = itemsPerOrder * 10;
+        int batch = 500;
+
+        List<Long> memberIds = new ArrayList<>();
+        List<Long> itemIds = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < Math.max(1, orders / 10); i++) {
+                Member member = new Member();
+                member.setName("member" + i);
+                member.setAddress(new Address("city" + i, "street" + i, "zip" + i));
+                em.persist(member);
+                memberIds.add(member.getId());
+            }
+            for (int i = 0; i < itemCount; i++) {
+                Book book = new Book();
+                book.setName("book" + i);
+                book.setPrice(1000 + i);
+                book.setStockQuantity(Integer.MAX_VALUE / 2);
+                em.persist(book);
+                itemIds.add(book.getId());
+            }
+        });
+
+        for (int from = 0; from < orders; from += batch) {
+            int start = from;
+            int end = Math.min(orders, from + batch);
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int o = start; o < end; o++) {
+                    Member member = em.find(Member.class, memberIds.get(o % memberIds.size()));
+                    Delivery delivery = new Delivery();
+                    delivery.setAddress(new Address("city", "street", "zip"));
+                    delivery.setStatus(DeliveryStatus.READY);
+
+                    OrderItem[] orderItems = new OrderItem[itemsPerOrder];
+                    for (int i = 0; i < itemsPerOrder; i++) {
+                        Book book = em.find(Book.class, itemIds.get((o + i) % itemIds.size()));
+                        orderItems[i] = OrderItem.createOrderItem(book, book.getPrice(), 1);
+                    }
+                    em.persist(Order.createOrder(member, delivery, orderItems));
+                }
+                em.flush();
+                em.clear();
+            });
+        }
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,85 @@
+package jpabook.jpashop.benchmark;
+
+import jpabook.jpashop.repository.LongGroupIndex;
+import jpabook.jpashop.repository.order.query.OrderItemQueryDto;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.groupingBy;
+
+/**
+ * 주문상품 row를 주문 id로 묶는 방식 비교 (DB 없이 메모리에서만, api/v5/orders의 컬렉션 매칭 단계)
+ *
+ * groupingBy: Map<Long, List<OrderItemQueryDto>> (기존 방식, 주문마다 Long 키/HashMap.Node/ArrayList 생성)
+ * index     : LongGroupIndex (정렬된 배열 하나 + long/int 배열 해시 테이블)
+ * 두 방식 모두 주문마다 한 번씩 조회해 결과를 채우는 것까지 포함
+ *
+ * sorted=true : 주문 id 순 입력 (order by 결과)
+ * sorted=false: 주문 id 순으로 정렬된 청크가 순서 없이 이어진 입력 (ChunkedInQuery 병렬 조회 결과)
+ *
+ * 처리 단위(op)는 row 한 건 => 결과의 시간과 gc.alloc.rate.norm이 곧 row당 시간/할당 바이트
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class GroupingBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int CHUNK_ORDERS = 500;
+
+    @Param({"1", "3", "10"})
+    int itemsPerOrder;
+
+    @Param({"true", "false"})
+    boolean sorted;
+
+    List<OrderItemQueryDto> rows;
+    long[] orderIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int orders = ROWS / itemsPerOrder;
+        orderIds = new long[orders];
+        List<List<OrderItemQueryDto>> chunks = new ArrayList<>();
+        for (int start = 0; start < orders; start += CHUNK_ORDERS) {
+            List<OrderItemQueryDto> chunk = new ArrayList<>();
+            for (int o = start; o < Math.min(orders, start + CHUNK_ORDERS); o++) {
+                orderIds[o] = 1_000_000L + o * 7L; // 식별자 블록 사이의 빈 구간 흉내
+                for (int i = 0; i < itemsPerOrder; i++) {
+                    chunk.add(new OrderItemQueryDto(orderIds[o], "item-" + i, 10_000, i + 1));
+                }
+            }
+            chunks.add(chunk);
+        }
+        if (!sorted) {
+            Collections.shuffle(chunks, new Random(42));
+        }
+        rows = new ArrayList<>(ROWS);
+        chunks.forEach(rows::addAll);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void groupingBy(Blackhole bh) {
+        Map<Long, List<OrderItemQueryDto>> map = rows.stream().collect(groupingBy(OrderItemQueryDto::getOrderId));
+        for (long orderId : orderIds) {
+            bh.consume(map.get(orderId));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void index(Blackhole bh) {
+        LongGroupIndex<OrderItemQueryDto> index = LongGroupIndex.build(rows, OrderItemQueryDto::getOrderId);
+        for (long orderId : orderIds) {
+            bh.consume(index.get(orderId));
+        }
+    }
+}
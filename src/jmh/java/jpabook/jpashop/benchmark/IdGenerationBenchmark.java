@@ -0,0 +1,92 @@
+package jpabook.jpashop.benchmark;
+
+import jpabook.jpashop.domain.*;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.domain.item.StockReservation;
+import org.openjdk.jmh.annotations.*;
+
+import javax.persistence.EntityManager;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 식별자 생성 방식별 주문 insert 처리량 (주문 1건 = orders, delivery, order_item 3건 insert)
+ *
+ * incrementSize=1,    prefetchBlocks=0: insert마다 시퀀스 조회 (기존 @GeneratedValue와 같은 왕복 수)
+ * incrementSize=50,   prefetchBlocks=0: pooled-lo, 50건마다 insert 트랜잭션 안에서 시퀀스 조회
+ * incrementSize=1000, prefetchBlocks=2: pooled-lo + 백그라운드 블록 prefetch (현재 설정)
+ *
+ * 초당 insert 수 = 처리량(ops/s) x 5
+ * SqlCounter.statements / invocations로 주문 트랜잭션당 SQL 수(시퀀스 조회 포함) 비교
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class IdGenerationBenchmark {
+
+    private static final int ITEMS_PER_ORDER = 3;
+
+    // 재고 update는 측정에서 제외
+    private static final StockReservation NO_STOCK = new StockReservation() {
+        @Override
+        public void reserve(Item item, int quantity) {
+        }
+
+        @Override
+        public void release(Item item, int quantity) {
+        }
+    };
+
+    @Param({"1", "50", "1000"})
+    int incrementSize;
+
+    @Param({"0", "2"})
+    int prefetchBlocks;
+
+    BenchmarkContext context;
+    EntityManager em;
+    Long memberId;
+    Long itemId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new BenchmarkContext(
+                "spring.jpa.properties.jpashop.id.increment_size=" + incrementSize,
+                "spring.jpa.properties.jpashop.id.prefetch_blocks=" + prefetchBlocks);
+        context.seed(0, 1);
+        em = context.getBean(EntityManager.class);
+        memberId = context.readOnlyTx().execute(status ->
+                em.createQuery("select m.id from Member m", Long.class).setMaxResults(1).getSingleResult());
+        itemId = context.readOnlyTx().execute(status ->
+                em.createQuery("select i.id from Book i", Long.class).setMaxResults(1).getSingleResult());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Long insertOrder(OrderQueryBenchmark.SqlCounter counter) {
+        long before = context.statementCount();
+        Long orderId = context.tx().execute(status -> {
+            Member member = em.getReference(Member.class, memberId);
+            Book book = em.getReference(Book.class, itemId);
+
+            Delivery delivery = new Delivery();
+            delivery.setAddress(new Address("city", "street", "zip"));
+            delivery.setStatus(DeliveryStatus.READY);
+
+            OrderItem[] orderItems = new OrderItem[ITEMS_PER_ORDER];
+            for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+                orderItems[i] = OrderItem.createOrderItem(book, 1000, 1, NO_STOCK);
+            }
+            Order order = Order.createOrder(member, delivery, orderItems);
+            em.persist(order);
+            return order.getId();
+        });
+        counter.statements += context.statementCount() - before;
+        counter.invocations++;
+        return orderId;
+    }
+}
@@ -0,0 +1,151 @@
+package jpabook.jpashop.benchmark;
+
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.OrderSearch;
+import jpabook.jpashop.repository.OrderRepository;
+import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import jpabook.jpashop.repository.order.simplequery.OrderSimpleQueryRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * api 패키지의 주문 조회 전략별 비교
+ *
+ * v1/v2: findAllByString + Lazy 초기화 (N+1), 최대 100건만 조회
+ * v3   : 컬렉션 패치 조인 (distinct)
+ * v3.1 : ToOne 패치 조인 + 컬렉션 batch fetch
+ * v4   : DTO 직접 조회 (컬렉션 N+1)
+ * v5   : DTO 직접 조회 + in절로 컬렉션 한 번에 조회
+ * v6   : 플랫 DTO 한 번에 조회
+ * simple v3/v4: ToOne만 필요한 주문 목록 (패치 조인 / DTO 직접 조회)
+ *
+ * 처리량 외에 gc 프로파일러로 할당량(gc.alloc.rate.norm), SqlCounter로 호출당 SQL 수를 함께 확인
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class OrderQueryBenchmark {
+
+    @Param({"100", "1000"})
+    int orders;
+
+    @Param({"2", "10"})
+    int itemsPerOrder;
+
+    BenchmarkContext context;
+    OrderRepository orderRepository;
+    OrderQueryRepository orderQueryRepository;
+    OrderSimpleQueryRepository orderSimpleQueryRepository;
+
+    /**
+     * 실행된 SQL 수 (iteration 단위 합계)
+     * statements / invocations = 호출당 SQL 수
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class SqlCounter {
+        public long statements;
+        public long invocations;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            statements = 0;
+            invocations = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new BenchmarkContext();
+        context.seed(orders, itemsPerOrder);
+        orderRepository = context.getBean(OrderRepository.class);
+        orderQueryRepository = context.getBean(OrderQueryRepository.class);
+        orderSimpleQueryRepository = context.getBean(OrderSimpleQueryRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void v1_entityLazyInit(Blackhole bh, SqlCounter counter) {
+        bh.consume(measure(counter, () -> {
+            List<Order> result = orderRepository.findAllByString(new OrderSearch());
+            initialize(result);
+            return result;
+        }));
+    }
+
+    @Benchmark
+    public void v3_collectionFetchJoin(Blackhole bh, SqlCounter counter) {
+        bh.consume(measure(counter, () -> {
+            List<Order> result = orderRepository.findAllWithItem();
+            initialize(result);
+            return result;
+        }));
+    }
+
+    @Benchmark
+    public void v3_1_batchFetch(Blackhole bh, SqlCounter counter) {
+        bh.consume(measure(counter, () -> {
+            List<Order> result = orderRepository.findAllWithMemberDelivery(0, orders);
+            initialize(result);
+            return result;
+        }));
+    }
+
+    @Benchmark
+    public void v4_dtoNPlusOne(Blackhole bh, SqlCounter counter) {
+        bh.consume(measure(counter, () -> orderQueryRepository.findOrderQueryDtos()));
+    }
+
+    @Benchmark
+    public void v5_dtoInQuery(Blackhole bh, SqlCounter counter) {
+        bh.consume(measure(counter, () -> orderQueryRepository.findAllByDto_Optimization()));
+    }
+
+    @Benchmark
+    public void v6_dtoFlat(Blackhole bh, SqlCounter counter) {
+        bh.consume(measure(counter, () -> orderQueryRepository.findAllByDto_Flat()));
+    }
+
+    @Benchmark
+    public void simple_v3_fetchJoin(Blackhole bh, SqlCounter counter) {
+        bh.consume(measure(counter, () -> {
+            List<Order> result = orderRepository.findAllWithMemberDelivery();
+            result.forEach(o -> o.getDelivery().getAddress());
+            return result;
+        }));
+    }
+
+    @Benchmark
+    public void simple_v4_dto(Blackhole bh, SqlCounter counter) {
+        bh.consume(measure(counter, () -> orderSimpleQueryRepository.findOrderDtos()));
+    }
+
+    // 트랜잭션(영속성 컨텍스트) 하나 안에서 실행하고 그 사이 실행된 SQL 수를 기록
+    private <T> T measure(SqlCounter counter, Supplier<T> query) {
+        long before = context.statementCount();
+        T result = context.readOnlyTx().execute(status -> query.get());
+        counter.statements += context.statementCount() - before;
+        counter.invocations++;
+        return result;
+    }
+
+    // api 컨트롤러의 DTO 변환과 동일하게 Lazy 연관관계를 모두 초기화
+    private void initialize(List<Order> result) {
+        for (Order order : result) {
+            order.getMember().getName();
+            order.getDelivery().getAddress();
+            for (OrderItem orderItem : order.getOrderItems()) {
+                orderItem.getItem().getName();
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package jpabook.jpashop.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jpabook.jpashop.repository.order.query.OrderQueryDto;
+import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import jpabook.jpashop.service.OrderJsonStreamService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주문 목록 조회 + JSON 직렬화 비교 (응답 본문 크기만 세고 버림)
+ *
+ * v5       : DTO 직접 조회(쿼리 2번) 후 ObjectMapper로 List<OrderQueryDto> 직렬화 (api/v5/orders)
+ * v5 stream: 스칼라 조회 row를 JsonGenerator로 바로 출력 (api/v5/orders?mode=stream)
+ *
+ * gc 프로파일러의 gc.alloc.rate.norm으로 호출당 할당량 비교
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class OrderSerializationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int orders;
+
+    @Param({"2", "10"})
+    int itemsPerOrder;
+
+    BenchmarkContext context;
+    OrderQueryRepository orderQueryRepository;
+    OrderJsonStreamService orderJsonStreamService;
+    ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new BenchmarkContext();
+        context.seed(orders, itemsPerOrder);
+        orderQueryRepository = context.getBean(OrderQueryRepository.class);
+        orderJsonStreamService = context.getBean(OrderJsonStreamService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long v5_dtoObjectMapper() {
+        CountingOutputStream out = new CountingOutputStream();
+        context.readOnlyTx().executeWithoutResult(status -> {
+            List<OrderQueryDto> result = orderQueryRepository.findAllByDto_Optimization();
+            try {
+                objectMapper.writeValue(out, result);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return out.bytes;
+    }
+
+    @Benchmark
+    public long v5_streamJsonGenerator() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        orderJsonStreamService.writeOrders(out); // 서비스의 readOnly 트랜잭션 안에서 실행
+        return out.bytes;
+    }
+
+    // 응답 스트림 대신 크기만 셈
+    static class CountingOutputStream extends OutputStream {
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package jpabook.jpashop.api;
+
+import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.service.CategoryService;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
+@RestController
+@RequiredArgsConstructor
+public class CategoryApiController {
+
+    public static final int MAX_ITEMS_LIMIT = 1000;
+
+    private final CategoryService categoryService;
+
+    /**
+     * 카테고리 하위 트리 전체의 상품 목록
+     * 하위 카테고리는 메모리의 트리 스냅샷에서 찾고 상품은 쿼리 한 번으로 조회
+     * after에 이전 응답의 next(마지막 상품 id)를 넘기면 다음 페이지
+     * limit은 1~MAX_ITEMS_LIMIT로 맞추고, limit + 1개를 조회해 다음 페이지가 있을 때만 next를 줌
+     */
+    @GetMapping("/api/v1/categories/{id}/items")
+    public CategoryItemsResponse<List<CategoryItemDto>> categoryItems(
+            @PathVariable Long id,
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_ITEMS_LIMIT));
+        List<Item> items = categoryService.findItemsUnder(id, after, pageSize + 1);
+
+        Long next = null;
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            next = items.get(pageSize - 1).getId();
+        }
+        List<CategoryItemDto> collect = items.stream()
+                .map(i -> new CategoryItemDto(i.getId(), i.getName(), i.getPrice(), i.getStockQuantity()))
+                .collect(toList());
+        return new CategoryItemsResponse<>(collect.size(), collect, next);
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class CategoryItemDto {
+        private Long id;
+        private String name;
+        private int price;
+        private int stockQuantity;
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class CategoryItemsResponse<T> {
+        private int count;
+        private T data;
+        private Long next;
+    }
+}
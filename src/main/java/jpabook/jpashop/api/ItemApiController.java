@@ -0,0 +1,30 @@
+package jpabook.jpashop.api;
+
+import jpabook.jpashop.importer.ItemImportFormat;
+import jpabook.jpashop.importer.ItemImportResult;
+import jpabook.jpashop.service.ItemImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+
+@RestController
+@RequiredArgsConstructor
+public class ItemApiController {
+
+    private final ItemImportService itemImportService;
+
+    /**
+     * 상품 카탈로그 일괄 등록
+     * 요청 본문을 multipart로 받지 않고 그대로 스트림으로 읽음 (파일 전체를 메모리/임시파일에 올리지 않음)
+     * curl -X POST --data-binary @items.csv -H 'Content-Type: text/csv' '/api/v1/items/import?format=csv'
+     */
+    @PostMapping("/api/v1/items/import")
+    public ItemImportResult importItems(@RequestParam(value = "format", defaultValue = "csv") String format,
+                                        HttpServletRequest request) throws IOException {
+        return itemImportService.importItems(request.getInputStream(), ItemImportFormat.from(format));
+    }
+}
@@ -2,15 +2,19 @@ package jpabook.jpashop.api;
 
 import jpabook.jpashop.domain.Address;
 import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.service.MemberJsonStreamService;
 import jpabook.jpashop.service.MemberService;
+import jpabook.jpashop.service.MemberView;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.NotEmpty;
+import java.io.IOException;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -19,15 +23,17 @@ import java.util.stream.Collectors;
 public class MemberApiController {
 
     private final MemberService memberService;
+    private final MemberJsonStreamService memberJsonStreamService;
 
     /* 엔티티를 직접 노출
        엔티티 변경시 API의 스펙이 바뀐다는 단점 외에 컬렉션을 바로 리턴하게 되면 확장성이 떨어짐
            Json기준 [ {..} ] 의 형태 X
        반환되는 컬렉션을 다른 제네릭 오브젝트로 감싸서 반환해야 함.
            Json기준 { [...] } 의 형태 O
+       (회원 조회가 캐시를 거치면서 엔티티 대신 캐시된 MemberView 목록을 그대로 반환)
      */
     @GetMapping("/api/v1/members")
-    public List<Member> findMembersV1() {
+    public List<MemberView> findMembersV1() {
         return memberService.findMembers();
     }
 
@@ -37,13 +43,30 @@ public class MemberApiController {
      */
     @GetMapping("/api/v2/members")
     public FindMemberResponse<Member> findMemberV2() {
-        List<Member> members = memberService.findMembers();
+        List<MemberView> members = memberService.findMembers();
         List<FindMemberDto> collect = members.stream()
                 .map(m -> new FindMemberDto(m.getName()))
                 .collect(Collectors.toList());
         return new FindMemberResponse(collect.size(), collect);
     }
 
+    /*
+       (id, name) 컬럼만 조회하고 id 기준 키셋 페이징, 응답은 JsonGenerator로 바로 스트리밍
+       after에 이전 응답의 next를 넘기면 다음 페이지 (첫 페이지는 생략), 마지막 페이지이면 next는 null
+       count=true면 전체 회원 수 추정값(totalEstimate)을 함께 반환 => 매 요청 count(*) 대신 메모리 집계값
+       limit은 1~MAX_LIMIT로 맞춤 (범위를 벗어난 값으로 500 대신 가장 가까운 페이지 크기)
+     */
+    @GetMapping("/api/v3/members")
+    public void findMembersV3(@RequestParam(value = "after", required = false) Long after,
+                              @RequestParam(value = "limit", defaultValue = "100") int limit,
+                              @RequestParam(value = "count", defaultValue = "false") boolean count,
+                              HttpServletResponse response) throws IOException {
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        int pageSize = Math.max(1, Math.min(limit, MemberJsonStreamService.MAX_LIMIT));
+        memberJsonStreamService.writeMembers(after, pageSize, count, response.getOutputStream());
+    }
+
     @PostMapping("/api/v1/members")
     public CreateMemberResponse saveMemberV1(@RequestBody @Valid Member member) {
         Long id = memberService.join(member);
@@ -63,7 +86,7 @@ public class MemberApiController {
             @PathVariable Long id,
             @RequestBody @Valid UpdateMemberRequest request) {
         memberService.updateMember(id, request.getName());
-        Member findMember = memberService.findOne(id);
+        MemberView findMember = memberService.findOne(id);
         return new UpdateMemberResponse(findMember.getId());
     }
 
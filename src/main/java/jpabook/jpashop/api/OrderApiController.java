@@ -1,16 +1,29 @@
 package jpabook.jpashop.api;
 
 import jpabook.jpashop.domain.*;
+import jpabook.jpashop.repository.OrderCursor;
 import jpabook.jpashop.repository.OrderRepository;
 import jpabook.jpashop.repository.order.query.OrderFlatDto;
 import jpabook.jpashop.repository.order.query.OrderQueryDto;
 import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import jpabook.jpashop.repository.order.summary.OrderSummaryDto;
+import jpabook.jpashop.repository.order.summary.OrderSummaryRepository;
+import jpabook.jpashop.service.IdempotentOrderService;
+import jpabook.jpashop.service.OrderExportService;
+import jpabook.jpashop.service.OrderJsonStreamService;
+import jpabook.jpashop.service.OrderLine;
+import lombok.AllArgsConstructor;
+import lombok.Data;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -20,8 +33,15 @@ import static java.util.stream.Collectors.toList;
 @RequiredArgsConstructor
 public class OrderApiController {
 
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final int MAX_CURSOR_LIMIT = 1000;
+
     private final OrderRepository orderRepository;
     private final OrderQueryRepository orderQueryRepository;
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final OrderExportService orderExportService;
+    private final OrderJsonStreamService orderJsonStreamService;
+    private final IdempotentOrderService idempotentOrderService;
 
     /**
      * v1 엔티티 직접 노출
@@ -91,6 +111,33 @@ public class OrderApiController {
         return collect;
     }
 
+    /**
+     * v3.1 키셋(커서) 페이징 모드
+     * offset이 커질수록 DB가 앞의 row를 읽고 버려야 하는 문제를 해결
+     * after에 이전 응답의 next 커서를 넘기면 그 다음 주문부터 limit개를 조회 (첫 페이지는 after 생략)
+     * limit은 1~MAX_CURSOR_LIMIT로 맞추고, limit + 1개를 조회해 다음 페이지가 있을 때만 next를 줌 (마지막 페이지이면 null)
+     * 잘못된 커서는 400
+     */
+    @GetMapping(value = "/api/v3.1/orders", params = "mode=cursor")
+    public CursorWrapper<List<OrderDto>> orderV3_cursor(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_CURSOR_LIMIT));
+        OrderCursor cursor = after == null ? null : OrderCursor.decode(after);
+        List<Order> result = orderRepository.findAllWithMemberDelivery(cursor, pageSize + 1);
+
+        String next = null;
+        if (result.size() > pageSize) {
+            result = result.subList(0, pageSize);
+            Order last = result.get(pageSize - 1);
+            next = new OrderCursor(last.getId(), last.getOrderDate()).encode();
+        }
+        List<OrderDto> collect = result.stream()
+                .map(o -> new OrderDto(o))
+                .collect(toList());
+        return new CursorWrapper<>(collect, collect.size(), next);
+    }
+
     /**
      * v4 JPA에서 DTO 직접 조회
      * 컬렉션까지 모두 DTO로 직접 조회
@@ -108,6 +155,28 @@ public class OrderApiController {
         return orderQueryRepository.findAllByDto_Optimization();
     }
 
+    /**
+     * v5 요약 테이블(order_summary) 조회 모드
+     * 주문상품 목록 대신 총액과 주문상품 수만 필요할 때 사용, 조인 없이 한 테이블만 읽음
+     */
+    @GetMapping(value = "/api/v5/orders", params = "mode=summary")
+    public List<OrderSummaryDto> orderV5_summary(
+            @RequestParam(value = "offset", defaultValue = "0") int offset,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return orderSummaryRepository.findSummaryDtos(offset, limit);
+    }
+
+    /**
+     * v5 스트리밍 모드
+     * 같은 형식의 JSON을 DTO 목록 없이 스칼라 조회 결과에서 JsonGenerator로 바로 응답에 씀
+     * 주문 목록이 클수록 직렬화 CPU/할당이 줄어듦 (OrderSerializationBenchmark 참고)
+     */
+    @GetMapping(value = "/api/v5/orders", params = "mode=stream")
+    public void orderV5_stream(HttpServletResponse response) throws IOException {
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        orderJsonStreamService.writeOrders(response.getOutputStream());
+    }
 
     /**
      * v6 JPA에서 DTO 직접 조회 (플랫 데이터 최적화)
@@ -126,6 +195,42 @@ public class OrderApiController {
 //                .collect(toList());
     }
 
+    /**
+     * v6 묶음 모드
+     * 플랫 조인 한 번으로 읽고 주문 단위로 다시 묶어 v5와 같은 형식으로 반환 (주문 id 순)
+     * 묶는 작업은 LongGroupIndex 사용 (groupingBy 대비 할당은 GroupingBenchmark 참고)
+     */
+    @GetMapping(value = "/api/v6/orders", params = "mode=grouped")
+    public List<OrderQueryDto> orderV6_grouped() {
+        return orderQueryRepository.findAllByDto_FlatGrouped();
+    }
+
+    /**
+     * 여러 상품 주문 (장바구니)
+     * 상품 조회는 in쿼리 한 번, 주문/주문상품/배송 insert는 jdbc batch로 전송
+     * Idempotency-Key 헤더가 있으면 같은 키로 재시도해도 주문은 한 번만 생성되고 처음 주문 id를 반환
+     */
+    @PostMapping("/api/v2/orders")
+    public CreateOrderResponse saveOrderV2(@RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String requestKey,
+                                           @RequestBody @Valid CreateOrderRequest request) {
+        List<OrderLine> lines = request.getLines().stream()
+                .map(l -> new OrderLine(l.getItemId(), l.getCount()))
+                .collect(toList());
+        Long id = idempotentOrderService.placeOrder(requestKey, request.getMemberId(), lines);
+        return new CreateOrderResponse(id);
+    }
+
+    /**
+     * 전체 주문 NDJSON export (야간 정산용)
+     * v6와 같은 플랫 조인을 DB 커서로 읽으면서 주문 단위로 묶어 한 줄씩 바로 응답에 씀
+     * 결과 List를 만들지 않으므로 주문 수와 관계없이 메모리 사용량이 일정
+     */
+    @GetMapping("/api/v6/orders/export")
+    public void exportOrders(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        orderExportService.exportOrders(response.getOutputStream());
+    }
 
     @Getter
     static class OrderDto{
@@ -172,4 +277,39 @@ public class OrderApiController {
         }
     }
 
+    @Data
+    static class CreateOrderRequest {
+        @NotNull
+        private Long memberId;
+        @NotEmpty @Valid
+        private List<OrderLineRequest> lines;
+    }
+
+    @Data
+    static class OrderLineRequest {
+        @NotNull
+        private Long itemId;
+        @Positive
+        private int count;
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class CreateOrderResponse {
+        private Long id;
+    }
+
+    @Getter
+    static class CursorWrapper<T>{
+        T data;
+        int count;
+        String next;
+
+        public CursorWrapper(T data, int count, String next) {
+            this.data = data;
+            this.count = count;
+            this.next = next;
+        }
+    }
+
 }
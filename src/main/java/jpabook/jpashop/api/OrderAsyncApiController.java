@@ -0,0 +1,72 @@
+package jpabook.jpashop.api;
+
+import jpabook.jpashop.api.OrderApiController.CreateOrderRequest;
+import jpabook.jpashop.api.OrderApiController.CreateOrderResponse;
+import jpabook.jpashop.concurrent.JdbcBulkhead;
+import jpabook.jpashop.datasource.ReadYourWrites;
+import jpabook.jpashop.exception.BulkheadFullException;
+import jpabook.jpashop.repository.order.query.OrderQueryDto;
+import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import jpabook.jpashop.service.IdempotentOrderService;
+import jpabook.jpashop.service.OrderLine;
+import jpabook.jpashop.sql.SqlStatementCounter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import static java.util.stream.Collectors.toList;
+import static jpabook.jpashop.api.OrderApiController.IDEMPOTENCY_KEY_HEADER;
+
+/**
+ * 주문 조회/주문 API 비동기 실행 모드 (mode=async)
+ * 컨트롤러는 CompletableFuture만 반환하고 Tomcat worker 스레드는 바로 반납
+ * JDBC 작업은 apiExecutor(가상 스레드 또는 스레드 풀)에서 JdbcBulkhead로 동시 실행 수를 제한하여 실행
+ * 실행된 SQL은 요청의 SqlStatistics에 집계 (SqlStatementCounter.wrap), 읽기 라우팅은 요청의 마지막 쓰기 시각을 따름 (ReadYourWrites.wrap)
+ */
+@RestController
+public class OrderAsyncApiController {
+
+    private final OrderQueryRepository orderQueryRepository;
+    private final IdempotentOrderService idempotentOrderService;
+    private final ExecutorService apiExecutor;
+    private final JdbcBulkhead jdbcBulkhead;
+
+    public OrderAsyncApiController(OrderQueryRepository orderQueryRepository,
+                                   IdempotentOrderService idempotentOrderService,
+                                   @Qualifier("apiExecutor") ExecutorService apiExecutor,
+                                   JdbcBulkhead jdbcBulkhead) {
+        this.orderQueryRepository = orderQueryRepository;
+        this.idempotentOrderService = idempotentOrderService;
+        this.apiExecutor = apiExecutor;
+        this.jdbcBulkhead = jdbcBulkhead;
+    }
+
+    @GetMapping(value = "/api/v5/orders", params = "mode=async")
+    public CompletableFuture<List<OrderQueryDto>> orderV5_async() {
+        return submit(orderQueryRepository::findAllByDto_Optimization);
+    }
+
+    @PostMapping(value = "/api/v2/orders", params = "mode=async")
+    public CompletableFuture<CreateOrderResponse> saveOrderV2_async(@RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String requestKey,
+                                                                    @RequestBody @Valid CreateOrderRequest request) {
+        List<OrderLine> lines = request.getLines().stream()
+                .map(l -> new OrderLine(l.getItemId(), l.getCount()))
+                .collect(toList());
+        return submit(() -> new CreateOrderResponse(idempotentOrderService.placeOrder(requestKey, request.getMemberId(), lines)));
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(SqlStatementCounter.wrap(ReadYourWrites.wrap(() -> jdbcBulkhead.call(task))), apiExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new BulkheadFullException("요청 대기열 초과", e));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package jpabook.jpashop.api;
+
+import jpabook.jpashop.journal.JournalEntry;
+import jpabook.jpashop.journal.OrderJournal;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class OrderJournalApiController {
+
+    public static final int MAX_EVENTS_LIMIT = 1000;
+
+    private final OrderJournal orderJournal;
+
+    /**
+     * 주문 이벤트 저널 재생 (from offset부터 limit건)
+     * 후속 시스템은 응답의 next를 저장해 두고 다음 요청의 from으로 사용
+     * limit은 1~MAX_EVENTS_LIMIT로 맞춤 (한 번에 세그먼트 전체를 메모리에 올리지 않도록)
+     */
+    @GetMapping("/api/v1/order-events")
+    public JournalResponse orderEvents(@RequestParam(value = "from", defaultValue = "0") long from,
+                                       @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        List<JournalEntry> entries = orderJournal.read(from, Math.max(1, Math.min(limit, MAX_EVENTS_LIMIT)));
+        long next = entries.isEmpty() ? from : entries.get(entries.size() - 1).getOffset() + 1;
+        return new JournalResponse(entries.size(), entries, next);
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class JournalResponse {
+        private int count;
+        private List<JournalEntry> data;
+        private long next;
+    }
+}
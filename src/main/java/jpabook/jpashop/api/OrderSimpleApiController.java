@@ -7,10 +7,13 @@ import jpabook.jpashop.domain.OrderStatus;
 import jpabook.jpashop.repository.OrderRepository;
 import jpabook.jpashop.repository.order.simplequery.OrderSimpleQueryDto;
 import jpabook.jpashop.repository.order.simplequery.OrderSimpleQueryRepository;
+import jpabook.jpashop.repository.order.summary.OrderSummaryDto;
+import jpabook.jpashop.repository.order.summary.OrderSummaryRepository;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.time.LocalDateTime;
@@ -23,6 +26,7 @@ public class OrderSimpleApiController {
 
     private final OrderRepository orderRepository;
     private final OrderSimpleQueryRepository orderSimpleQueryRepository;
+    private final OrderSummaryRepository orderSummaryRepository;
 
     /**
      * 엔티티를 직접 리턴하는 경우 무한순환참조 문제 발생
@@ -91,6 +95,17 @@ public class OrderSimpleApiController {
         return orderSimpleQueryRepository.findOrderDtos();
     }
 
+    /**
+     * v4 요약 테이블(order_summary) 조회 모드
+     * 주문/취소시 함께 갱신되는 비정규화 테이블 한 개만 읽으므로 조인이 없음
+     */
+    @GetMapping(value = "/api/v4/simple-orders", params = "mode=summary")
+    public List<OrderSummaryDto> orderV4_summary(
+            @RequestParam(value = "offset", defaultValue = "0") int offset,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return orderSummaryRepository.findSummaryDtos(offset, limit);
+    }
+
     @Data
     static class OrderDto {
         private Long OrderId;
@@ -0,0 +1,57 @@
+package jpabook.jpashop.api;
+
+import jpabook.jpashop.repository.order.stats.ItemSalesDto;
+import jpabook.jpashop.repository.order.stats.OrderStatsDto;
+import jpabook.jpashop.service.OrderStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 주문 통계 API (예: /api/v1/order-stats/daily?from=2021-01-01&to=2021-01-31)
+ * 모두 DB 집계 결과를 DTO로 바로 반환 (엔티티 로딩 없음)
+ */
+@RestController
+@RequiredArgsConstructor
+public class OrderStatsApiController {
+
+    public static final int MAX_TOP_ITEMS_LIMIT = 100;
+
+    private final OrderStatsService orderStatsService;
+
+    @GetMapping("/api/v1/order-stats/daily")
+    public List<OrderStatsDto> daily(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "cached", defaultValue = "false") boolean cached) {
+        return orderStatsService.findDailyStats(from, to, cached);
+    }
+
+    @GetMapping("/api/v1/order-stats/status")
+    public List<OrderStatsDto> status(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return orderStatsService.findStatusStats(from, to);
+    }
+
+    @GetMapping("/api/v1/order-stats/category")
+    public List<OrderStatsDto> category(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return orderStatsService.findCategoryStats(from, to);
+    }
+
+    // limit은 1~MAX_TOP_ITEMS_LIMIT로 맞춤 (0 이하는 setMaxResults에서 예외, 너무 크면 집계 결과 전체를 반환)
+    @GetMapping("/api/v1/order-stats/top-items")
+    public List<ItemSalesDto> topItems(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return orderStatsService.findTopItems(from, to, Math.max(1, Math.min(limit, MAX_TOP_ITEMS_LIMIT)));
+    }
+}
@@ -0,0 +1,19 @@
+package jpabook.jpashop.concurrent;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 같은 메서드, 같은 인자의 동시 호출을 하나로 합침 (single-flight)
+ * 먼저 들어온 호출 하나만 실행하고 나머지는 그 결과(또는 예외)를 함께 받음
+ * 결과 객체를 호출자끼리 공유하므로 호출자가 결과를 변경하지 않는 조회 메서드에만 사용
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Coalesced {
+
+    // 실행이 끝난 뒤에도 이 시간 동안은 같은 인자의 호출에 결과를 그대로 반환 (0이면 실행 중인 호출만 합침)
+    long ttlMs() default 0;
+}
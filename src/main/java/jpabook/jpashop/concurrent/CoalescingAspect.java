@@ -0,0 +1,121 @@
+package jpabook.jpashop.concurrent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Coalesced 메서드의 동시 호출 합치기
+ *
+ * (메서드, 인자 목록)을 키로 실행 중인 호출을 기억해 두고, 같은 키의 호출은 새로 실행하지 않고 결과를 기다림
+ * => 인기 상품 페이지나 주문 목록에 같은 요청이 몰려도 DB 조회는 한 번
+ *
+ * 트랜잭션/캐시 advice보다 바깥에서 실행되어 기다리는 호출은 커넥션을 잡지 않음
+ * 이미 트랜잭션 안에서 호출되면 합치지 않음 (자기 트랜잭션에서 변경한 내용을 봐야 하므로)
+ * leader는 자기 요청 스레드에서 실행하므로 SQL 통계(SqlStatementCounter)는 leader 요청에만 집계되고 follower는 0건
+ *
+ * 메트릭 jpashop.coalesced.calls (method, role 태그)
+ * - role=leader: 실제로 실행한 호출
+ * - role=follower: 실행 중인 호출의 결과를 받은 호출
+ * - role=cached: ttlMs 안에 끝난 호출의 결과를 받은 호출
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class CoalescingAspect {
+
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<List<Object>, Flight> flights = new ConcurrentHashMap<>();
+
+    public CoalescingAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(coalesced)")
+    public Object coalesce(ProceedingJoinPoint joinPoint, Coalesced coalesced) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        String method = signature.getDeclaringType().getSimpleName() + "." + signature.getName();
+        List<Object> key = List.of(signature.getMethod(), Arrays.asList(joinPoint.getArgs()));
+
+        Flight[] created = new Flight[1];
+        Flight flight = flights.compute(key, (k, current) -> {
+            if (current != null && !current.isExpired()) {
+                return current;
+            }
+            created[0] = new Flight();
+            return created[0];
+        });
+
+        if (flight != created[0]) {
+            count(method, flight.future.isDone() ? "cached" : "follower");
+            return await(flight);
+        }
+
+        count(method, "leader");
+        try {
+            Object result = joinPoint.proceed();
+            flight.future.complete(result);
+            return result;
+        } catch (Throwable e) {
+            flight.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            if (coalesced.ttlMs() > 0 && !flight.future.isCompletedExceptionally()) {
+                flight.expiresAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(coalesced.ttlMs());
+                flight.expiring = true;
+                sweepIfLarge();
+            } else {
+                flights.remove(key, flight);
+            }
+        }
+    }
+
+    private void count(String method, String role) {
+        meterRegistry.counter("jpashop.coalesced.calls", "method", method, "role", role).increment();
+    }
+
+    // ttl이 지난 결과는 같은 키로 다시 호출될 때 교체되므로, 다시 호출되지 않는 키만 가끔 정리
+    private void sweepIfLarge() {
+        if (flights.size() > SWEEP_THRESHOLD) {
+            flights.values().removeIf(Flight::isExpired);
+        }
+    }
+
+    private static Object await(Flight flight) throws Throwable {
+        try {
+            return flight.future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause(); // 실행한 호출과 같은 예외
+        }
+    }
+
+    private static class Flight {
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+        private volatile long expiresAt;
+        private volatile boolean expiring; // 실행이 끝나고 expiresAt이 정해짐
+
+        boolean isExpired() {
+            return expiring && System.nanoTime() - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package jpabook.jpashop.concurrent;
+
+import jpabook.jpashop.exception.BulkheadFullException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * DB 작업 동시 실행 수 제한 (bulkhead)
+ * 가상 스레드처럼 스레드 수에 제한이 없는 실행기에서도 동시에 커넥션을 잡는 작업은 permits개로 제한
+ * permits는 커넥션 풀 크기 이하로 설정 => 커넥션 풀 고갈로 모든 요청이 connectionTimeout까지 멈추는 상황 방지
+ *
+ * 대기 시간(acquireTimeoutMs) 안에 자리를 얻지 못하면 BulkheadFullException(503)
+ */
+public class JdbcBulkhead {
+
+    private final Semaphore semaphore;
+    private final long acquireTimeoutMs;
+
+    public JdbcBulkhead(int permits, long acquireTimeoutMs) {
+        this.semaphore = new Semaphore(permits, true);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    public <T> T call(Supplier<T> task) {
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BulkheadFullException("DB 작업 대기 중 인터럽트", e);
+        }
+        if (!acquired) {
+            throw new BulkheadFullException("DB 동시 작업 수 초과");
+        }
+
+        try {
+            return task.get();
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    public int availablePermits() {
+        return semaphore.availablePermits();
+    }
+}
@@ -0,0 +1,90 @@
+package jpabook.jpashop.concurrent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.OptimisticLockException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @RetryOnConflict 메서드의 낙관적 락 충돌 재시도
+ *
+ * 트랜잭션 advice보다 바깥에서 실행되어야 재시도마다 새 트랜잭션(새 영속성 컨텍스트)으로 다시 조회함
+ * 이미 바깥 트랜잭션 안에서 호출된 경우 그 트랜잭션이 rollback-only가 되므로 재시도하지 않음
+ *
+ * 메트릭 (method, entity 태그로 충돌이 몰리는 곳 확인)
+ * - jpashop.optimistic.conflicts: 충돌 수
+ * - jpashop.optimistic.retries: 재시도 수
+ * - jpashop.optimistic.failures: 재시도 횟수를 모두 쓰고 실패한 수
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class OptimisticRetryAspect {
+
+    private static final long MAX_BACKOFF_MS = 1000;
+
+    private final MeterRegistry meterRegistry;
+
+    public OptimisticRetryAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(retryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnConflict retryOnConflict) throws Throwable {
+        String method = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+        boolean inTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                String entity = entityName(e);
+                counter("jpashop.optimistic.conflicts", method, entity).increment();
+
+                if (inTransaction || attempt >= retryOnConflict.maxAttempts()) {
+                    counter("jpashop.optimistic.failures", method, entity).increment();
+                    throw e;
+                }
+
+                counter("jpashop.optimistic.retries", method, entity).increment();
+                long backoff = backoffMillis(retryOnConflict.backoffMs(), attempt);
+                log.debug("optimistic lock conflict. method={}, entity={}, attempt={}, backoff={}ms", method, entity, attempt, backoff);
+                Thread.sleep(backoff);
+            }
+        }
+    }
+
+    private Counter counter(String name, String method, String entity) {
+        return meterRegistry.counter(name, "method", method, "entity", entity);
+    }
+
+    private static long backoffMillis(long base, int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MS, base << Math.min(attempt - 1, 20));
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static String entityName(Exception e) {
+        if (e instanceof ObjectOptimisticLockingFailureException) {
+            String className = ((ObjectOptimisticLockingFailureException) e).getPersistentClassName();
+            if (className != null) {
+                return className.substring(className.lastIndexOf('.') + 1);
+            }
+        }
+        if (e instanceof OptimisticLockException && ((OptimisticLockException) e).getEntity() != null) {
+            return ((OptimisticLockException) e).getEntity().getClass().getSimpleName();
+        }
+        return "unknown";
+    }
+}
@@ -0,0 +1,21 @@
+package jpabook.jpashop.concurrent;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 낙관적 락 충돌(OptimisticLockingFailureException)시 메서드를 새 트랜잭션으로 다시 실행
+ * 재시도해도 같은 결과가 되도록 메서드 안에서 엔티티를 다시 조회해 변경하는 경우에만 사용
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+
+    // 첫 실행을 포함한 최대 실행 횟수
+    int maxAttempts() default 3;
+
+    // n번째 재시도 전 대기 시간은 0 ~ backoffMs * 2^(n-1) 사이의 임의 값 (full jitter)
+    long backoffMs() default 20;
+}
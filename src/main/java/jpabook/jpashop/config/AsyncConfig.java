@@ -0,0 +1,57 @@
+package jpabook.jpashop.config;
+
+import jpabook.jpashop.concurrent.JdbcBulkhead;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 비동기 API 실행 환경
+ * 요청 스레드(Tomcat worker)는 바로 반환하고 실제 작업은 apiExecutor에서 실행
+ *
+ * JDK 21 이상이면 가상 스레드, 아니면 크기가 정해진 스레드 풀 사용
+ * 어느 쪽이든 DB 작업의 동시 실행 수는 JdbcBulkhead로 제한
+ */
+@Slf4j
+@Configuration
+public class AsyncConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService apiExecutor(@Value("${jpashop.async.virtual-threads:true}") boolean virtualThreads,
+                                       @Value("${jpashop.async.pool-size:50}") int poolSize,
+                                       @Value("${jpashop.async.queue-capacity:1000}") int queueCapacity) {
+        if (virtualThreads) {
+            ExecutorService executor = newVirtualThreadPerTaskExecutor();
+            if (executor != null) {
+                log.info("api executor: virtual threads");
+                return executor;
+            }
+        }
+
+        log.info("api executor: thread pool size={}, queue={}", poolSize, queueCapacity);
+        AtomicInteger sequence = new AtomicInteger();
+        return new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> new Thread(r, "api-" + sequence.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Bean
+    public JdbcBulkhead jdbcBulkhead(@Value("${jpashop.async.max-concurrent-queries:${spring.datasource.hikari.maximum-pool-size:10}}") int permits,
+                                     @Value("${jpashop.async.acquire-timeout-ms:3000}") long acquireTimeoutMs) {
+        return new JdbcBulkhead(permits, acquireTimeoutMs);
+    }
+
+    // 소스 호환성(Java 11)을 위해 리플렉션으로 호출, 지원하지 않는 JDK면 null
+    private ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package jpabook.jpashop.config;
+
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+/**
+ * 조회용 애플리케이션 캐시 (Caffeine)
+ * 캐시 크기/TTL은 spring.cache.caffeine.spec, 적중/실패 통계는 /actuator/metrics/cache.gets 로 확인
+ *
+ * 캐시에는 엔티티 대신 변경 불가능한 조회용 값(ItemView, MemberView, CategoryView)을 저장
+ * => 캐시된 객체는 여러 스레드가 함께 읽으므로, 준영속 엔티티를 공유하면 한 요청의 변경/지연로딩이 다른 요청에 보이거나 예외가 남
+ *
+ * 트랜잭션 안에서의 put/evict(@CacheEvict 포함)는 커밋된 뒤에 반영 (TransactionAwareCacheManagerProxy)
+ * => 커밋 전에 비운 자리를 다른 조회가 커밋 전 값으로 다시 채우는 일을 줄이고, 롤백되면 캐시를 건드리지 않음
+ * 커밋 후 콜백(@TransactionalEventListener) 안에서는 등록한 동기화가 실행되지 않으므로 evictIfPresent/invalidate로 바로 비워야 함
+ */
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    public static final String ITEM = "item";
+    public static final String ITEMS = "items";
+    public static final String MEMBER = "member";
+    public static final String MEMBERS = "members";
+    public static final String CATEGORY = "category";
+
+    @Bean
+    public CacheManager cacheManager(CacheProperties cacheProperties) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+        String spec = cacheProperties.getCaffeine().getSpec();
+        if (StringUtils.hasText(spec)) {
+            caffeineCacheManager.setCacheSpecification(spec);
+        }
+        if (!cacheProperties.getCacheNames().isEmpty()) {
+            caffeineCacheManager.setCacheNames(cacheProperties.getCacheNames());
+        }
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
@@ -0,0 +1,81 @@
+package jpabook.jpashop.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jpabook.jpashop.datasource.ReadWriteRoutingDataSource;
+import jpabook.jpashop.datasource.ReadYourWritesFilter;
+import jpabook.jpashop.datasource.RoutingDataSourceProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 읽기 전용 트랜잭션을 replica로 보내는 DataSource 설정 (jpashop.datasource.routing-enabled=true일 때)
+ * 기본 DataSource 자동설정 대신 primary + replica 커넥션 풀을 직접 만들어 ReadWriteRoutingDataSource 하나로 노출
+ *
+ * 내부 커넥션 풀은 빈으로 등록하지 않음 => p6spy 등 DataSource 데코레이터가 한 번만 적용됨
+ */
+@Configuration
+@ConditionalOnProperty(name = "jpashop.datasource.routing-enabled", havingValue = "true")
+@EnableConfigurationProperties(RoutingDataSourceProperties.class)
+public class DataSourceRoutingConfig {
+
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties dataSourceProperties,
+                                 RoutingDataSourceProperties routingProperties,
+                                 Environment environment) {
+        HikariDataSource primary = pool(dataSourceProperties, environment, "primary",
+                dataSourceProperties.determineUrl(), dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+
+        List<DataSource> replicas = new ArrayList<>();
+        List<RoutingDataSourceProperties.Replica> replicaProperties = routingProperties.getReplicas();
+        for (int i = 0; i < replicaProperties.size(); i++) {
+            RoutingDataSourceProperties.Replica replica = replicaProperties.get(i);
+            HikariDataSource pool = pool(dataSourceProperties, environment, "replica-" + i, replica.getUrl(),
+                    replica.getUsername() != null ? replica.getUsername() : dataSourceProperties.determineUsername(),
+                    replica.getPassword() != null ? replica.getPassword() : dataSourceProperties.determinePassword());
+            pool.setReadOnly(true);
+            replicas.add(pool);
+        }
+
+        routingDataSource = new ReadWriteRoutingDataSource(primary, replicas,
+                routingProperties.getReadYourWritesMs(), routingProperties.getHealthCheckIntervalMs());
+        return routingDataSource;
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter() {
+        return new ReadYourWritesFilter();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (routingDataSource != null) {
+            routingDataSource.close();
+        }
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Environment environment, String name,
+                                         String url, String username, String password) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(name);
+        return dataSource;
+    }
+}
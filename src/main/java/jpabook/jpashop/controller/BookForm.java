@@ -7,12 +7,16 @@ public class BookForm {
 
     private Long id;    // 수정을 위함
 
+    private Long version;   // 수정 화면을 연 시점의 버전 (그 사이 다른 수정이 있었는지 확인)
+
     private String name;
 
     private int price;
 
     private int stockQuantity;
 
+    private Integer originalStockQuantity;  // 수정 화면을 연 시점의 재고 (차이만큼만 반영)
+
     private String author;
 
     private String isbn;
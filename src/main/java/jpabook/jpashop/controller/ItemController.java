@@ -1,12 +1,15 @@
 package jpabook.jpashop.controller;
 
 import jpabook.jpashop.domain.item.Book;
-import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.exception.ItemVersionConflictException;
+import jpabook.jpashop.exception.NotEnoughSotckException;
 import jpabook.jpashop.service.ItemService;
+import jpabook.jpashop.service.ItemView;
 import lombok.Builder;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -41,7 +44,7 @@ public class ItemController {
 
     @GetMapping("items")
     public String list(Model model) {
-        List<Item> items = itemService.findItems();
+        List<ItemView> items = itemService.findItems();
         model.addAttribute("items", items);
 
         return "items/itemList";
@@ -49,15 +52,40 @@ public class ItemController {
 
     @GetMapping("/items/{id}/edit")
     public String updateForm(@PathVariable Long id, Model model) {
-        Item findItem = itemService.findItem(id);
-        model.addAttribute("form", findItem);
+        BookForm form = new BookForm();
+        fill(form, (Book) itemService.findItemForEdit(id));
+        model.addAttribute("form", form);
 
         return "items/updateForm";
     }
 
+    /**
+     * 화면을 연 뒤 다른 곳에서 상품이 바뀌었으면 최신 값으로 다시 채운 화면과 오류 메시지를 보여줌
+     * 재고를 화면을 연 시점보다 더 많이 줄이려고 하면(그 사이 팔린 경우) 재고 필드 오류
+     */
     @PostMapping("/items/{id}/edit")
-    public String update(@PathVariable Long id, BookForm bookForm) {
-        itemService.updateItem(id, bookForm);
+    public String update(@PathVariable Long id, @ModelAttribute("form") BookForm bookForm, BindingResult bindingResult) {
+        try {
+            itemService.updateItem(id, bookForm);
+        } catch (ItemVersionConflictException e) {
+            fill(bookForm, (Book) itemService.findItemForEdit(id));
+            bindingResult.reject("conflict", e.getMessage());
+            return "items/updateForm";
+        } catch (NotEnoughSotckException e) {
+            bindingResult.rejectValue("stockQuantity", "notEnough", "그 사이 판매되어 재고를 그만큼 줄일 수 없습니다.");
+            return "items/updateForm";
+        }
         return "redirect:/items";
     }
+
+    private static void fill(BookForm form, Book item) {
+        form.setId(item.getId());
+        form.setVersion(item.getVersion());
+        form.setName(item.getName());
+        form.setPrice(item.getPrice());
+        form.setStockQuantity(item.getStockQuantity());
+        form.setOriginalStockQuantity(item.getStockQuantity());
+        form.setAuthor(item.getAuthor());
+        form.setIsbn(item.getIsbn());
+    }
 }
@@ -1,11 +1,12 @@
 package jpabook.jpashop.controller;
 
-import jpabook.jpashop.domain.Member;
-import jpabook.jpashop.domain.Order;
 import jpabook.jpashop.domain.OrderSearch;
-import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.repository.order.admin.OrderListPage;
+import jpabook.jpashop.service.IdempotentOrderService;
 import jpabook.jpashop.service.ItemService;
+import jpabook.jpashop.service.ItemView;
 import jpabook.jpashop.service.MemberService;
+import jpabook.jpashop.service.MemberView;
 import jpabook.jpashop.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
@@ -13,23 +14,28 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.UUID;
 
 @Controller
 @RequiredArgsConstructor
 public class OrderController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final OrderService orderService;
     private final MemberService memberService;
     private final ItemService itemService;
+    private final IdempotentOrderService idempotentOrderService;
 
     @GetMapping("/order")
     public String createForm(Model model) {
 
-        List<Member> members = memberService.findMembers();
-        List<Item> items = itemService.findItems();
+        List<MemberView> members = memberService.findMembers();
+        List<ItemView> items = itemService.findItems();
 
         model.addAttribute("members", members);
         model.addAttribute("items", items);
+        model.addAttribute("requestKey", UUID.randomUUID().toString()); // 폼 중복 제출/새로고침시 같은 키로 주문
 
         return "orders/orderForm";
     }
@@ -37,17 +43,29 @@ public class OrderController {
     @PostMapping("/order")
     public String order(@RequestParam("memberId") Long memberId,
                         @RequestParam("itemId") Long itemId,
-                        @RequestParam("count") int count) {
+                        @RequestParam("count") int count,
+                        @RequestParam(value = "requestKey", required = false) String requestKey) {
 
-        orderService.order(memberId, itemId, count);
+        idempotentOrderService.order(requestKey, memberId, itemId, count);
 
         return "redirect:/orders";
     }
 
+    /*
+        주문 목록 (최신순, 키셋 페이징)
+        대표상품까지 DTO 한 번에 조회 => 화면 렌더링 중 지연로딩 없음
+        after: 다음 페이지(더 오래된 주문), before: 이전 페이지(더 최신 주문)
+     */
     @GetMapping("/orders")
-    public String orderList(@ModelAttribute("orderSearch")OrderSearch orderSearch, Model model) {
-        List<Order> orders = orderService.findOrders(orderSearch);
-        model.addAttribute("orders", orders);
+    public String orderList(@ModelAttribute("orderSearch")OrderSearch orderSearch,
+                            @RequestParam(value = "after", required = false) Long after,
+                            @RequestParam(value = "before", required = false) Long before,
+                            @RequestParam(value = "size", defaultValue = "20") int size,
+                            Model model) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        OrderListPage page = orderService.findOrderListPage(orderSearch, after, before, pageSize);
+        model.addAttribute("page", page);
+        model.addAttribute("size", pageSize);
 
         return "orders/orderList";
     }
@@ -0,0 +1,179 @@
+package jpabook.jpashop.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 읽기/쓰기 DataSource 라우팅
+ *
+ * - 읽기 전용 트랜잭션(@Transactional(readOnly = true)): replica 중 하나 (라운드로빈, 정상인 replica만)
+ * - 그 외(쓰기 트랜잭션, 트랜잭션 밖): primary
+ * - 마지막 쓰기 후 readYourWritesMs 동안은 읽기 전용 트랜잭션도 primary (ReadYourWrites)
+ * - 정상인 replica가 없거나 replica 커넥션 획득에 실패하면 primary
+ *
+ * 트랜잭션 시작 시점에는 아직 readOnly 여부가 TransactionSynchronizationManager에 반영되지 않으므로
+ * LazyConnectionDataSourceProxy로 실제 커넥션 획득을 첫 SQL 실행까지 미룬 뒤 라우팅함
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private final Router router;
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas,
+                                      long readYourWritesMs, long healthCheckIntervalMs) {
+        this.router = new Router(primary, replicas, readYourWritesMs, healthCheckIntervalMs);
+        setTargetDataSource(router);
+        afterPropertiesSet();
+    }
+
+    // 헬스 체크를 바로 실행 (테스트, 운영 중 수동 확인용)
+    public void checkHealth() {
+        router.checkHealth();
+    }
+
+    public int healthyReplicas() {
+        return router.healthy.size();
+    }
+
+    @Override
+    public void close() {
+        router.close();
+    }
+
+    static class Router extends AbstractDataSource {
+
+        private final DataSource primary;
+        private final List<DataSource> replicas;
+        private final long readYourWritesMs;
+        private final AtomicInteger sequence = new AtomicInteger();
+        private final ScheduledExecutorService healthChecker;
+
+        private volatile List<DataSource> healthy;
+
+        Router(DataSource primary, List<DataSource> replicas, long readYourWritesMs, long healthCheckIntervalMs) {
+            this.primary = primary;
+            this.replicas = List.copyOf(replicas);
+            this.readYourWritesMs = readYourWritesMs;
+            this.healthy = this.replicas;
+            this.healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "replica-health-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+            if (!replicas.isEmpty() && healthCheckIntervalMs > 0) {
+                healthChecker.scheduleWithFixedDelay(this::checkHealth, healthCheckIntervalMs, healthCheckIntervalMs, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            DataSource target = determineTarget();
+            if (target == primary) {
+                return primary.getConnection();
+            }
+            try {
+                return target.getConnection();
+            } catch (SQLException e) {
+                log.warn("replica connection failed, falling back to primary: {}", e.getMessage());
+                markDown(target);
+                return primary.getConnection();
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return primary.getConnection(username, password);
+        }
+
+        private DataSource determineTarget() {
+            if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+                return primary;
+            }
+            if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                trackWrite();
+                return primary;
+            }
+            if (ReadYourWrites.isWithin(readYourWritesMs)) {
+                return primary;
+            }
+            List<DataSource> candidates = healthy;
+            if (candidates.isEmpty()) {
+                return primary;
+            }
+            return candidates.get(Math.floorMod(sequence.getAndIncrement(), candidates.size()));
+        }
+
+        // 쓰기 트랜잭션이 커밋되면 현재 세션의 마지막 쓰기 시각 갱신 (트랜잭션당 한 번 등록)
+        private void trackWrite() {
+            if (readYourWritesMs <= 0 || !TransactionSynchronizationManager.isSynchronizationActive()
+                    || TransactionSynchronizationManager.hasResource(this)) {
+                return;
+            }
+            TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ReadYourWrites.markWrite(readYourWritesMs);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(Router.this);
+                }
+            });
+        }
+
+        void checkHealth() {
+            List<DataSource> result = new ArrayList<>();
+            for (DataSource replica : replicas) {
+                try (Connection connection = replica.getConnection()) {
+                    if (connection.isValid(1)) {
+                        result.add(replica);
+                    }
+                } catch (SQLException e) {
+                    log.debug("replica health check failed: {}", e.getMessage());
+                }
+            }
+            if (result.size() != healthy.size()) {
+                log.info("healthy replicas: {}/{}", result.size(), replicas.size());
+            }
+            healthy = List.copyOf(result);
+        }
+
+        private synchronized void markDown(DataSource replica) {
+            List<DataSource> result = new ArrayList<>(healthy);
+            result.remove(replica);
+            healthy = List.copyOf(result);
+        }
+
+        void close() {
+            healthChecker.shutdownNow();
+            closeQuietly(primary);
+            replicas.forEach(Router::closeQuietly);
+        }
+
+        private static void closeQuietly(DataSource dataSource) {
+            if (dataSource instanceof Closeable) {
+                try {
+                    ((Closeable) dataSource).close();
+                } catch (Exception e) {
+                    log.warn("datasource close failed", e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package jpabook.jpashop.datasource;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.function.Supplier;
+
+/**
+ * 세션(클라이언트)별 마지막 쓰기 시각
+ * 쓰기 직후의 읽기는 복제 지연 때문에 replica에서 방금 쓴 데이터가 안 보일 수 있으므로
+ * 마지막 쓰기 후 일정 시간 동안은 읽기 전용 트랜잭션도 primary로 보냄
+ *
+ * 쓰기 시각은 쿠키로 클라이언트에 내려주고 다음 요청에서 ReadYourWritesFilter가 현재 스레드에 복원
+ * (서버 세션 없이 여러 서버 사이에서도 동작, 요청 밖의 스레드에서는 스레드 단위로 동작)
+ *
+ * 요청의 DB 작업을 다른 스레드(apiExecutor, ChunkedInQuery)에서 실행할 때는 wrap()으로 감싸서 넘김
+ * => 요청의 마지막 쓰기 시각과 요청(응답 쿠키)을 실행 스레드에 묶고, 끝나면 실행 스레드의 원래 값으로 되돌림
+ *    (풀 스레드에 남은 쓰기 시각이 다음 작업의 읽기를 primary로 보내지 않도록)
+ */
+public final class ReadYourWrites {
+
+    public static final String COOKIE = "jpashop-last-write";
+
+    private static final ThreadLocal<Long> LAST_WRITE = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static boolean isWithin(long windowMs) {
+        Long lastWrite = LAST_WRITE.get();
+        return windowMs > 0 && lastWrite != null && System.currentTimeMillis() - lastWrite < windowMs;
+    }
+
+    // 쓰기 트랜잭션 커밋 후 호출
+    public static void markWrite(long windowMs) {
+        if (windowMs <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        LAST_WRITE.set(now);
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes) {
+            HttpServletResponse response = ((ServletRequestAttributes) attributes).getResponse();
+            if (response != null && !response.isCommitted()) {
+                Cookie cookie = new Cookie(COOKIE, Long.toString(now));
+                cookie.setPath("/");
+                cookie.setHttpOnly(true);
+                cookie.setMaxAge((int) Math.max(1, (windowMs + 999) / 1000));
+                response.addCookie(cookie);
+            }
+        }
+    }
+
+    public static <T> Supplier<T> wrap(Supplier<T> task) {
+        Long capturedWrite = LAST_WRITE.get();
+        RequestAttributes capturedAttributes = RequestContextHolder.getRequestAttributes();
+        return () -> {
+            Long previousWrite = LAST_WRITE.get();
+            RequestAttributes previousAttributes = RequestContextHolder.getRequestAttributes();
+            set(capturedWrite);
+            RequestContextHolder.setRequestAttributes(capturedAttributes);
+            try {
+                return task.get();
+            } finally {
+                set(previousWrite);
+                RequestContextHolder.setRequestAttributes(previousAttributes);
+            }
+        };
+    }
+
+    private static void set(Long lastWrite) {
+        if (lastWrite == null) {
+            LAST_WRITE.remove();
+        } else {
+            LAST_WRITE.set(lastWrite);
+        }
+    }
+
+    static void restore(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    LAST_WRITE.set(Long.parseLong(cookie.getValue()));
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        }
+    }
+
+    static void clear() {
+        LAST_WRITE.remove();
+    }
+}
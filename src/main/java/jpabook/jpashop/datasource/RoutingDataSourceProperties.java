@@ -0,0 +1,30 @@
+package jpabook.jpashop.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 읽기 전용 복제본(replica) 설정
+ * 접속 정보가 없는 항목(username, password)은 spring.datasource 값을 사용
+ * 커넥션 풀 설정(spring.datasource.hikari.*)은 primary, replica 모두에 적용
+ */
+@Getter @Setter
+@ConfigurationProperties(prefix = "jpashop.datasource")
+public class RoutingDataSourceProperties {
+
+    private boolean routingEnabled;
+    private List<Replica> replicas = new ArrayList<>();
+    private long readYourWritesMs = 1000;
+    private long healthCheckIntervalMs = 5000;
+
+    @Getter @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -18,7 +18,8 @@ public class Category extends BaseEntity {
     @ManyToMany
     @JoinTable(name = "category_item",
             joinColumns = @JoinColumn(name = "category_id"),
-            inverseJoinColumns = @JoinColumn(name = "item_id"))
+            inverseJoinColumns = @JoinColumn(name = "item_id"),
+            indexes = @Index(name = "idx_category_item", columnList = "category_id, item_id"))
     private List<Item> items = new ArrayList<>();
 
 
@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_member_name", columnNames = "name")) // 이름 중복 최종 방어 + name 조회 인덱스
 @Getter @Setter
 public class Member extends BaseEntity {
 
@@ -1,6 +1,7 @@
 package jpabook.jpashop.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jpabook.jpashop.domain.item.StockReservation;
 import jpabook.jpashop.domain.model.BaseEntity;
 import lombok.AccessLevel;
 import lombok.Getter;
@@ -14,7 +15,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name="orders") // db의 order by 때문에 orders로
+@Table(name="orders", // db의 order by 때문에 orders로
+        indexes = {
+                @Index(name = "idx_orders_order_date_id", columnList = "order_date, id"), // 키셋 페이징용
+                @Index(name = "idx_orders_member_status", columnList = "member_id, status") // 회원별 주문 검색용
+        })
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Order extends BaseEntity {
@@ -35,6 +40,11 @@ public class Order extends BaseEntity {
     @Enumerated(EnumType.STRING)
     private OrderStatus status; // 주문상태 (ORDER, CANCEL)
 
+    // 낙관적 락: 동시에 같은 주문을 취소하면 나중에 커밋하는 쪽이 OptimisticLockException으로 롤백됨
+    @Version
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
 
     // 양방향 연관관계 편의 메서드
     public void setMember(Member member) {
@@ -68,13 +78,20 @@ public class Order extends BaseEntity {
     // 비즈니스 로직
     /* 주문취소 */
     public void cancel() {
+        cancel(StockReservation.IN_MEMORY);
+    }
+
+    public void cancel(StockReservation stockReservation) {
         if (delivery.getStatus() == DeliveryStatus.COMP) {
             throw new IllegalStateException("배송 완료된 상품은 취소할 수 없습니다.");
         }
+        if (status == OrderStatus.CANCEL) { // 재고가 두 번 복구되지 않도록
+            throw new IllegalStateException("이미 취소된 주문입니다.");
+        }
 
         this.setStatus(OrderStatus.CANCEL);
         for(OrderItem orderItem : orderItems) {
-            orderItem.cancel();
+            orderItem.cancel(stockReservation);
         }
     }
 
@@ -2,6 +2,7 @@ package jpabook.jpashop.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.domain.item.StockReservation;
 import jpabook.jpashop.domain.model.BaseEntity;
 import lombok.AccessLevel;
 import lombok.Getter;
@@ -31,13 +32,17 @@ public class OrderItem extends BaseEntity{
 
     /* 생성자 메서드 */
     public static OrderItem createOrderItem(Item item, int orderPrice, int count) {
+        return createOrderItem(item, orderPrice, count, StockReservation.IN_MEMORY);
+    }
+
+    public static OrderItem createOrderItem(Item item, int orderPrice, int count, StockReservation stockReservation) {
         OrderItem orderItem = new OrderItem();
         orderItem.setItem(item);
         orderItem.setOrderPrice(orderPrice);
         orderItem.setCount(count);
 
         // 재고감소
-        item.removeStock(count);
+        stockReservation.reserve(item, count);
 
         return orderItem;
     }
@@ -45,7 +50,11 @@ public class OrderItem extends BaseEntity{
     /* 비즈니스 로직 */
     // 주문취소에 의한 재고증가
     public void cancel() {
-        getItem().addStock(count);
+        cancel(StockReservation.IN_MEMORY);
+    }
+
+    public void cancel(StockReservation stockReservation) {
+        stockReservation.release(getItem(), count);
     }
 
     // 주문상품 전체 가격
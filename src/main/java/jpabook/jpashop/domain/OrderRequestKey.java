@@ -0,0 +1,51 @@
+package jpabook.jpashop.domain;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * 주문 요청 키 (멱등성 키)
+ * 클라이언트가 주문 요청마다 만든 키를 주문과 같은 트랜잭션에서 저장
+ * 같은 키로 다시 저장하면 기본키 중복으로 실패 => 재시도된 요청의 주문은 롤백되고 원래 주문 id를 돌려줌
+ *
+ * 키는 전역이므로 회원 id와 요청 내용의 해시(payloadHash)를 함께 저장
+ * => 다른 회원이나 다른 내용의 요청이 같은 키를 쓰면 원래 주문 id를 돌려주지 않고 거부
+ */
+@Entity
+@Table(name = "order_request_key")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class OrderRequestKey {
+
+    public static final int MAX_LENGTH = 64;
+
+    @Id
+    @Column(name = "request_key", length = MAX_LENGTH)
+    private String requestKey;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "member_id")
+    private Long memberId;
+
+    @Column(name = "payload_hash", length = 64)
+    private String payloadHash;
+
+    private LocalDateTime createdAt;
+
+    public OrderRequestKey(String requestKey, Long orderId, Long memberId, String payloadHash) {
+        this.requestKey = requestKey;
+        this.orderId = orderId;
+        this.memberId = memberId;
+        this.payloadHash = payloadHash;
+        this.createdAt = LocalDateTime.now();
+    }
+}
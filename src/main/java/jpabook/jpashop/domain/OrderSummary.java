@@ -0,0 +1,62 @@
+package jpabook.jpashop.domain;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 주문 목록 조회용 비정규화 테이블 (읽기 모델)
+ * 주문 목록에 필요한 회원명, 배송지, 상태, 총액, 주문상품 수를 한 row에 담아두고
+ * 주문/취소시 이벤트로 함께 갱신 => 목록 조회시 orders, member, delivery, order_item 조인이 필요 없음
+ *
+ * 식별자는 주문의 id를 그대로 사용
+ */
+@Entity
+@Table(name = "order_summary",
+        indexes = @Index(name = "idx_order_summary_member", columnList = "member_id"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class OrderSummary {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "member_id")
+    private Long memberId;
+
+    private String memberName;
+
+    @Embedded
+    private Address address;
+
+    private LocalDateTime orderDate;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    private int totalPrice;
+
+    private int lineCount;
+
+    // 생성 메서드
+    public static OrderSummary createOrderSummary(Order order) {
+        OrderSummary summary = new OrderSummary();
+        summary.orderId = order.getId();
+        summary.memberId = order.getMember().getId();
+        summary.memberName = order.getMember().getName();
+        summary.address = order.getDelivery().getAddress();
+        summary.orderDate = order.getOrderDate();
+        summary.status = order.getStatus();
+        summary.totalPrice = order.getTotalPrice();
+        summary.lineCount = order.getOrderItems().size();
+        return summary;
+    }
+
+    public void changeStatus(OrderStatus status) {
+        this.status = status;
+    }
+}
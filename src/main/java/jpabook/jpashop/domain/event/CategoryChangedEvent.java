@@ -0,0 +1,16 @@
+package jpabook.jpashop.domain.event;
+
+import lombok.Getter;
+
+/**
+ * 카테고리 추가/변경 이벤트 (카테고리 트리 스냅샷 재생성용)
+ */
+@Getter
+public class CategoryChangedEvent {
+
+    private final Long categoryId;
+
+    public CategoryChangedEvent(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+}
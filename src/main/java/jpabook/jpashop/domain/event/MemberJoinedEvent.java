@@ -0,0 +1,18 @@
+package jpabook.jpashop.domain.event;
+
+import lombok.Getter;
+
+/**
+ * 회원가입 이벤트
+ */
+@Getter
+public class MemberJoinedEvent {
+
+    private final Long memberId;
+    private final String name;
+
+    public MemberJoinedEvent(Long memberId, String name) {
+        this.memberId = memberId;
+        this.name = name;
+    }
+}
@@ -0,0 +1,20 @@
+package jpabook.jpashop.domain.event;
+
+import lombok.Getter;
+
+/**
+ * 회원 이름 변경 이벤트
+ */
+@Getter
+public class MemberNameChangedEvent {
+
+    private final Long memberId;
+    private final String oldName;
+    private final String name;
+
+    public MemberNameChangedEvent(Long memberId, String oldName, String name) {
+        this.memberId = memberId;
+        this.oldName = oldName;
+        this.name = name;
+    }
+}
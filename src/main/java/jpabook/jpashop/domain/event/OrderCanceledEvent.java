@@ -0,0 +1,17 @@
+package jpabook.jpashop.domain.event;
+
+import jpabook.jpashop.domain.Order;
+import lombok.Getter;
+
+/**
+ * 주문 취소 이벤트
+ */
+@Getter
+public class OrderCanceledEvent {
+
+    private final Order order;
+
+    public OrderCanceledEvent(Order order) {
+        this.order = order;
+    }
+}
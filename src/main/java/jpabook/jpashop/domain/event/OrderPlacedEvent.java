@@ -0,0 +1,18 @@
+package jpabook.jpashop.domain.event;
+
+import jpabook.jpashop.domain.Order;
+import lombok.Getter;
+
+/**
+ * 주문 완료 이벤트
+ * 주문 트랜잭션 안에서 발행되므로 리스너는 같은 영속성 컨텍스트의 Order를 그대로 사용할 수 있음
+ */
+@Getter
+public class OrderPlacedEvent {
+
+    private final Order order;
+
+    public OrderPlacedEvent(Order order) {
+        this.order = order;
+    }
+}
@@ -0,0 +1,18 @@
+package jpabook.jpashop.domain.event;
+
+import lombok.Getter;
+
+/**
+ * 재고 변경 이벤트 (quantity: 차감이면 음수, 복구면 양수)
+ */
+@Getter
+public class StockChangedEvent {
+
+    private final Long itemId;
+    private final int quantity;
+
+    public StockChangedEvent(Long itemId, int quantity) {
+        this.itemId = itemId;
+        this.quantity = quantity;
+    }
+}
@@ -3,6 +3,7 @@ package jpabook.jpashop.domain.item;
 import jpabook.jpashop.domain.Category;
 import jpabook.jpashop.domain.model.BaseEntity;
 import jpabook.jpashop.exception.NotEnoughSotckException;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
 import lombok.Getter;
@@ -25,6 +26,11 @@ public abstract class Item extends BaseEntity {
     private int price;
     private int stockQuantity;
 
+    // 낙관적 락: 변경감지 update시 where version = ? 조건 추가, 재고 벌크 update도 버전을 올림
+    @Version
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
     public void addStock(int quantity) {
         this.stockQuantity += quantity;
     }
@@ -0,0 +1,28 @@
+package jpabook.jpashop.domain.item;
+
+/**
+ * 재고 차감/복구 방식
+ * 주문상품 생성시 reserve, 주문취소시 release가 호출됨
+ */
+public interface StockReservation {
+
+    /**
+     * 엔티티의 재고 필드를 직접 변경 (변경감지로 반영)
+     * 락이나 버전 없이 read-modify-write 하므로 동시성 보장이 필요 없는 곳(테스트, 초기 데이터 등)에서만 사용
+     */
+    StockReservation IN_MEMORY = new StockReservation() {
+        @Override
+        public void reserve(Item item, int quantity) {
+            item.removeStock(quantity);
+        }
+
+        @Override
+        public void release(Item item, int quantity) {
+            item.addStock(quantity);
+        }
+    };
+
+    void reserve(Item item, int quantity);
+
+    void release(Item item, int quantity);
+}
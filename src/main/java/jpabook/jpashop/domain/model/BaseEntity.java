@@ -2,18 +2,36 @@ package jpabook.jpashop.domain.model;
 
 import lombok.Getter;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.MappedSuperclass;
 import java.time.LocalDateTime;
 
+/**
+ * 식별자 생성
+ * 기본 @GeneratedValue(AUTO)는 MySQL에서 insert마다 식별자를 얻기 위한 DB 왕복이 필요하고 insert batch가 불가능함
+ * pooled-lo 최적화로 시퀀스(시퀀스가 없는 DB는 테이블)에서 increment_size만큼 식별자를 미리 할당받아 메모리에서 사용
+ * => 식별자 조회 왕복이 increment_size번에 한 번으로 줄고 hibernate.jdbc.batch_size로 insert를 묶을 수 있음
+ * 다음 블록은 PrefetchingPooledLoGenerator가 백그라운드에서 미리 받아둠 (블록 크기/개수는 application.yml)
+ */
 @MappedSuperclass
 @Getter
 public class BaseEntity {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "jpashop_id")
+    @GenericGenerator(name = "jpashop_id",
+            strategy = "jpabook.jpashop.domain.model.PrefetchingPooledLoGenerator",
+            parameters = {
+                    @Parameter(name = "sequence_name", value = "hibernate_sequence"),
+                    @Parameter(name = "increment_size", value = "50"),
+                    @Parameter(name = "optimizer", value = "pooled-lo"),
+                    @Parameter(name = "prefetch_blocks", value = "2")
+            })
     private Long id;
 
 }
@@ -0,0 +1,143 @@
+package jpabook.jpashop.domain.model;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.MappingException;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 식별자 블록을 미리 받아두는 pooled-lo 생성기
+ *
+ * pooled-lo: 시퀀스(또는 테이블) 값 v 하나로 [v, v + increment_size) 블록을 받아 메모리에서 할당
+ * 여기에 더해 백그라운드 스레드가 다음 블록을 prefetch_blocks개까지 미리 받아둠
+ * => 블록을 다 쓴 insert도 시퀀스 왕복을 기다리지 않고 바로 다음 블록으로 넘어감 (주문 트랜잭션에서 식별자 조회 제거)
+ * 미리 받아둔 블록이 없으면(시작 직후, 순간적인 폭주) 기존 pooled-lo와 같이 현재 세션에서 바로 조회
+ *
+ * 설정 (spring.jpa.properties, 없으면 @GenericGenerator 파라미터)
+ * - jpashop.id.increment_size: 블록 크기, DB 시퀀스/테이블의 증가값과 반드시 같아야 함
+ * - jpashop.id.prefetch_blocks: 미리 받아둘 블록 수 (0이면 일반 pooled-lo)
+ *
+ * 노드가 내려가면 받아둔 블록만큼 식별자 간격이 생김
+ */
+@Slf4j
+public class PrefetchingPooledLoGenerator extends SequenceStyleGenerator {
+
+    public static final String PREFETCH_PARAM = "prefetch_blocks";
+    public static final String INCREMENT_SETTING = "jpashop.id.increment_size";
+    public static final String PREFETCH_SETTING = "jpashop.id.prefetch_blocks";
+
+    // 모든 엔티티의 생성기가 함께 사용 (블록 조회는 짧고 드묾)
+    private static final ExecutorService REFILLER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "id-block-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean refilling = new AtomicBoolean();
+
+    private int incrementSize;
+    private BlockingQueue<Long> prefetched;
+    private volatile SessionFactoryImplementor sessionFactory;
+
+    // synchronized(this) 안에서만 사용, 현재 블록 [next, hi)
+    private long next;
+    private long hi;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        Map<?, ?> settings = serviceRegistry.getService(ConfigurationService.class).getSettings();
+        Properties merged = new Properties();
+        merged.putAll(params);
+        if (settings.get(INCREMENT_SETTING) != null) {
+            merged.setProperty(INCREMENT_PARAM, String.valueOf(settings.get(INCREMENT_SETTING)));
+        }
+        if (settings.get(PREFETCH_SETTING) != null) {
+            merged.setProperty(PREFETCH_PARAM, String.valueOf(settings.get(PREFETCH_SETTING)));
+        }
+
+        super.configure(type, merged, serviceRegistry);
+        if (!Long.class.equals(type.getReturnedClass())) {
+            throw new MappingException("Long 식별자만 지원: " + type.getReturnedClass());
+        }
+        incrementSize = ConfigurationHelper.getInt(INCREMENT_PARAM, merged, DEFAULT_INCREMENT_SIZE);
+        int prefetchBlocks = ConfigurationHelper.getInt(PREFETCH_PARAM, merged, 0);
+        prefetched = prefetchBlocks > 0 ? new ArrayBlockingQueue<>(prefetchBlocks) : null;
+    }
+
+    @Override
+    public synchronized Serializable generate(SharedSessionContractImplementor session, Object object) {
+        if (next >= hi) {
+            Long lo = pollPrefetched();
+            if (lo == null) {
+                lo = nextBlock(session);
+            }
+            next = lo;
+            hi = lo + incrementSize;
+        }
+        if (prefetched != null && prefetched.remainingCapacity() > 0) {
+            sessionFactory = session.getFactory();
+            refillAsync();
+        }
+        return next++;
+    }
+
+    /**
+     * 미리 받아둔 블록 중 현재 블록보다 뒤인 것
+     * 큐가 빈 사이 현재 세션에서 직접 받은 블록이 백그라운드에서 받던 블록보다 뒤일 수 있음
+     * => 앞선 블록은 버려서 식별자가 항상 증가하도록 함 (그 블록만큼 간격이 생김)
+     */
+    private Long pollPrefetched() {
+        if (prefetched == null) {
+            return null;
+        }
+        Long lo;
+        while ((lo = prefetched.poll()) != null && lo < hi) {
+            log.debug("discard stale id block {}", lo);
+        }
+        return lo;
+    }
+
+    private void refillAsync() {
+        if (!refilling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            REFILLER.execute(this::refill);
+        } catch (RuntimeException e) {
+            refilling.set(false);
+            throw e;
+        }
+    }
+
+    // 트랜잭션 밖의 별도 세션(커넥션)에서 블록 조회
+    private void refill() {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            while (prefetched.remainingCapacity() > 0) {
+                prefetched.offer(nextBlock((SharedSessionContractImplementor) session));
+            }
+        } catch (RuntimeException e) {
+            log.warn("id block prefetch failed: {}", e.getMessage());
+        } finally {
+            refilling.set(false);
+        }
+    }
+
+    private long nextBlock(SharedSessionContractImplementor session) {
+        return getDatabaseStructure().buildCallback(session).getNextValue().makeValue().longValue();
+    }
+}
@@ -0,0 +1,24 @@
+package jpabook.jpashop.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ItemVersionConflictException extends IllegalStateException {
+
+    public ItemVersionConflictException() {
+        super();
+    }
+
+    public ItemVersionConflictException(String message) {
+        super(message);
+    }
+
+    public ItemVersionConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public ItemVersionConflictException(Throwable cause) {
+        super(cause);
+    }
+}
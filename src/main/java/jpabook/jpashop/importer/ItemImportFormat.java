@@ -0,0 +1,19 @@
+package jpabook.jpashop.importer;
+
+/**
+ * 상품 일괄 등록 파일 형식
+ * CSV: 첫 줄은 헤더 (dtype,id,name,price,stockQuantity,author,isbn,artist,etc,director,actor 중 필요한 컬럼)
+ * JSON: 객체 배열([{...}, {...}]) 또는 한 줄에 객체 하나(NDJSON)
+ */
+public enum ItemImportFormat {
+    CSV, JSON;
+
+    public static ItemImportFormat from(String format) {
+        for (ItemImportFormat value : values()) {
+            if (value.name().equalsIgnoreCase(format)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("지원하지 않는 형식: " + format);
+    }
+}
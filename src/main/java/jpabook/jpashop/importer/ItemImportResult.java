@@ -0,0 +1,63 @@
+package jpabook.jpashop.importer;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 상품 일괄 등록 결과 (진행 중에는 지금까지의 결과)
+ * 실패 행은 maxReportedFailures건까지만 보관하고 나머지는 건수만 셈
+ */
+@Getter
+public class ItemImportResult {
+
+    private long inserted;
+    private long updated;
+    private long failed;
+    private final List<Failure> failures = new ArrayList<>();
+
+    private final int maxReportedFailures;
+
+    public ItemImportResult(int maxReportedFailures) {
+        this.maxReportedFailures = maxReportedFailures;
+    }
+
+    public long getProcessed() {
+        return inserted + updated + failed;
+    }
+
+    public void addInserted() {
+        inserted++;
+    }
+
+    public void addUpdated() {
+        updated++;
+    }
+
+    public void addFailure(Failure failure) {
+        failed++;
+        if (failures.size() < maxReportedFailures) {
+            failures.add(failure);
+        }
+    }
+
+    public void addFailure(long rowNumber, String reason) {
+        addFailure(new Failure(rowNumber, reason));
+    }
+
+    public void merge(ItemImportResult other) {
+        inserted += other.inserted;
+        updated += other.updated;
+        other.failures.forEach(this::addFailure);
+        failed += other.failed - other.failures.size();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Failure {
+        private long rowNumber;  // 헤더를 제외한 1부터 시작하는 레코드 번호
+        private String reason;
+    }
+}
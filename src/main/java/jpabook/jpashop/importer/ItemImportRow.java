@@ -0,0 +1,130 @@
+package jpabook.jpashop.importer;
+
+import jpabook.jpashop.domain.item.Album;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.domain.item.Movie;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 파일에서 읽은 상품 한 건 (검증 완료)
+ * dtype은 Item 단일 테이블의 구분값(B: Book, A: Album, M: Movie)
+ * id가 있으면 기존 상품 수정, 없으면 신규 등록
+ * 재고는 신규 등록시에만 그대로 넣고, 수정시에는 StockService로 차이만큼 반영 (applyTo는 재고를 바꾸지 않음)
+ */
+@Getter
+public class ItemImportRow {
+
+    private final long rowNumber;
+    private final String dtype;
+    private final Long id;
+    private final String name;
+    private final int price;
+    private final int stockQuantity;
+    private final Map<String, String> values;
+
+    private ItemImportRow(long rowNumber, String dtype, Long id, String name, int price, int stockQuantity,
+                          Map<String, String> values) {
+        this.rowNumber = rowNumber;
+        this.dtype = dtype;
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.stockQuantity = stockQuantity;
+        this.values = values;
+    }
+
+    /**
+     * 컬럼 값 검증 후 생성, 잘못된 값이면 IllegalArgumentException
+     */
+    public static ItemImportRow of(long rowNumber, Map<String, String> values) {
+        String dtype = text(values, "dtype");
+        if (dtype == null) {
+            throw new IllegalArgumentException("dtype 누락");
+        }
+        dtype = dtype.toUpperCase();
+        if (!dtype.equals("B") && !dtype.equals("A") && !dtype.equals("M")) {
+            throw new IllegalArgumentException("알 수 없는 dtype: " + dtype);
+        }
+
+        String name = text(values, "name");
+        if (name == null) {
+            throw new IllegalArgumentException("name 누락");
+        }
+
+        String id = text(values, "id");
+        return new ItemImportRow(rowNumber, dtype,
+                id == null ? null : parseNumber(id, "id", Long::parseLong),
+                name,
+                nonNegative(values, "price"),
+                nonNegative(values, "stockQuantity"),
+                values);
+    }
+
+    public Item newItem() {
+        Item item;
+        switch (dtype) {
+            case "B": item = new Book(); break;
+            case "A": item = new Album(); break;
+            default: item = new Movie();
+        }
+        item.setStockQuantity(stockQuantity);
+        applyTo(item);
+        return item;
+    }
+
+    // 수정 대상 상품의 타입이 파일의 dtype과 같은지
+    public boolean matches(Item item) {
+        switch (dtype) {
+            case "B": return item instanceof Book;
+            case "A": return item instanceof Album;
+            default: return item instanceof Movie;
+        }
+    }
+
+    public void applyTo(Item item) {
+        item.setName(name);
+        item.setPrice(price);
+        if (item instanceof Book) {
+            ((Book) item).setAuthor(text(values, "author"));
+            ((Book) item).setIsbn(text(values, "isbn"));
+        } else if (item instanceof Album) {
+            ((Album) item).setArtist(text(values, "artist"));
+            ((Album) item).setEtc(text(values, "etc"));
+        } else if (item instanceof Movie) {
+            ((Movie) item).setDirector(text(values, "director"));
+            ((Movie) item).setActor(text(values, "actor"));
+        }
+    }
+
+    private static String text(Map<String, String> values, String column) {
+        String value = values.get(column);
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        return value.trim();
+    }
+
+    private static int nonNegative(Map<String, String> values, String column) {
+        String value = text(values, column);
+        if (value == null) {
+            throw new IllegalArgumentException(column + " 누락");
+        }
+        int number = parseNumber(value, column, Integer::parseInt);
+        if (number < 0) {
+            throw new IllegalArgumentException(column + "는 0 이상이어야 함: " + value);
+        }
+        return number;
+    }
+
+    private static <T> T parseNumber(String value, String column, Function<String, T> parser) {
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " 숫자 형식 오류: " + value);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package jpabook.jpashop.journal;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 주문 이벤트 저널의 기록 하나
+ * offset은 저널에 쓰인 순서 (0부터 1씩 증가), 기록 본문이 아니라 레코드 헤더에 저장됨
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JournalEntry {
+
+    public enum Type {
+        ORDER_PLACED, ORDER_CANCELED, STOCK_CHANGED
+    }
+
+    private Long offset;
+    private Type type;
+    private long occurredAt; // epoch millis
+    private Long orderId;
+    private Long memberId;
+    private Integer totalPrice;
+    private Long itemId;
+    private Integer quantity; // 주문: 전체 수량, 재고: 증감량
+
+    public static JournalEntry orderPlaced(Order order) {
+        return ofOrder(Type.ORDER_PLACED, order);
+    }
+
+    public static JournalEntry orderCanceled(Order order) {
+        return ofOrder(Type.ORDER_CANCELED, order);
+    }
+
+    public static JournalEntry stockChanged(Long itemId, int quantity) {
+        JournalEntry entry = new JournalEntry();
+        entry.type = Type.STOCK_CHANGED;
+        entry.occurredAt = System.currentTimeMillis();
+        entry.itemId = itemId;
+        entry.quantity = quantity;
+        return entry;
+    }
+
+    private static JournalEntry ofOrder(Type type, Order order) {
+        JournalEntry entry = new JournalEntry();
+        entry.type = type;
+        entry.occurredAt = System.currentTimeMillis();
+        entry.orderId = order.getId();
+        entry.memberId = order.getMember().getId();
+        entry.totalPrice = order.getTotalPrice();
+        int quantity = 0;
+        for (OrderItem orderItem : order.getOrderItems()) {
+            quantity += orderItem.getCount();
+        }
+        entry.quantity = quantity;
+        return entry;
+    }
+
+    JournalEntry withOffset(long offset) {
+        this.offset = offset;
+        return this;
+    }
+}
@@ -0,0 +1,119 @@
+package jpabook.jpashop.journal;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jpabook.jpashop.domain.event.OrderCanceledEvent;
+import jpabook.jpashop.domain.event.OrderPlacedEvent;
+import jpabook.jpashop.domain.event.StockChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 주문 이벤트 저널 (감사/후속 시스템 연동용, 추가 전용 파일)
+ *
+ * 주문/취소/재고변경이 커밋된 뒤 기록 요청을 큐에 넣기만 하고 바로 반환 (write-behind)
+ * => 주문 트랜잭션에는 디스크 I/O 대기가 추가되지 않음
+ * 커밋 후 fsync 전에 프로세스가 죽으면 마지막 fsync 주기만큼의 기록은 유실될 수 있음
+ * 롤백된 주문/재고변경은 기록되지 않음
+ *
+ * 큐(queue-capacity)가 가득 차면 주문 처리를 멈추지 않도록 기록을 버림 (디스크가 느려져도 주문은 계속 받음)
+ * 버린 기록은 메트릭 jpashop.journal.dropped (type 태그)로 집계 => 0보다 크면 저널에 빈 구간이 있으므로
+ * 후속 시스템은 그 구간을 주문 테이블에서 다시 맞춰야 함
+ */
+@Slf4j
+@Component
+public class OrderJournal {
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final SegmentedLog segmentedLog;
+
+    public OrderJournal(ObjectMapper objectMapper,
+                        MeterRegistry meterRegistry,
+                        @Value("${jpashop.journal.enabled:true}") boolean enabled,
+                        @Value("${jpashop.journal.directory:data/order-journal}") String directory,
+                        @Value("${jpashop.journal.segment-bytes:67108864}") long segmentBytes,
+                        @Value("${jpashop.journal.fsync-every-records:0}") int fsyncEveryRecords,
+                        @Value("${jpashop.journal.fsync-interval-ms:10}") long fsyncIntervalMs,
+                        @Value("${jpashop.journal.queue-capacity:65536}") int queueCapacity) throws IOException {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.segmentedLog = enabled
+                ? new SegmentedLog(Paths.get(directory), segmentBytes, fsyncEveryRecords, fsyncIntervalMs, queueCapacity)
+                : null;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        append(JournalEntry.orderPlaced(event.getOrder()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderCanceled(OrderCanceledEvent event) {
+        append(JournalEntry.orderCanceled(event.getOrder()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        append(JournalEntry.stockChanged(event.getItemId(), event.getQuantity()));
+    }
+
+    /**
+     * fromOffset부터 최대 limit건 (fsync된 기록까지)
+     */
+    public List<JournalEntry> read(long fromOffset, int limit) {
+        List<JournalEntry> entries = new ArrayList<>();
+        if (segmentedLog == null) {
+            return entries;
+        }
+        try {
+            segmentedLog.read(fromOffset, limit, (offset, payload) -> {
+                try {
+                    entries.add(objectMapper.readValue(payload, JournalEntry.class).withOffset(offset));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return entries;
+    }
+
+    private void append(JournalEntry entry) {
+        if (segmentedLog == null) {
+            return;
+        }
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(entry);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        // 기록 실패는 이미 커밋된 주문에 영향을 주지 않고 메트릭과 로그만 남김
+        segmentedLog.append(payload).whenComplete((offset, e) -> {
+            if (e != null) {
+                meterRegistry.counter("jpashop.journal.dropped", "type", String.valueOf(entry.getType())).increment();
+                log.warn("order journal append failed. type={}, orderId={}, itemId={}",
+                        entry.getType(), entry.getOrderId(), entry.getItemId(), e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (segmentedLog != null) {
+            segmentedLog.close();
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package jpabook.jpashop.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 추가 전용(append-only) 세그먼트 파일 로그
+ *
+ * 레코드: [payload 길이 int][payload CRC32 int][offset long][payload]
+ * 세그먼트: 첫 레코드의 offset을 파일명으로 사용 (00000000000000000000.log), segmentBytes를 넘으면 새 파일
+ *
+ * group commit
+ * - append는 큐에 넣고 바로 반환 => 호출 스레드는 디스크 I/O를 기다리지 않음
+ * - 쓰기 스레드 하나가 큐에 쌓인 레코드를 모아 write 한 번으로 기록
+ * - fsync는 fsyncEveryRecords건 또는 fsyncIntervalMs마다 한 번 (주기가 0이면 큐가 빌 때마다)
+ * - append가 반환한 future는 fsync가 끝난 뒤 offset으로 완료됨
+ *
+ * 시작시 마지막 세그먼트를 검사해 CRC가 맞지 않거나 잘린 꼬리 레코드는 잘라냄
+ * 읽기(read)는 fsync가 끝난 레코드까지만 반환
+ */
+@Slf4j
+public class SegmentedLog implements Closeable {
+
+    private static final int HEADER_BYTES = 16;
+    private static final int MAX_BATCH = 1024;
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final int fsyncEveryRecords;
+    private final long fsyncIntervalNanos;
+
+    private final BlockingQueue<Pending> queue;
+    private final List<Pending> unsynced = new ArrayList<>();
+    private final Thread writer;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+
+    // 쓰기 스레드에서만 사용
+    private FileChannel active;
+    private long nextOffset;
+    private long lastSyncNanos = System.nanoTime();
+
+    private volatile long durableOffset; // 이 값 미만의 offset은 fsync 완료
+    private volatile boolean closed;
+
+    public SegmentedLog(Path directory, long segmentBytes, int fsyncEveryRecords, long fsyncIntervalMs,
+                        int queueCapacity) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsyncEveryRecords = fsyncEveryRecords;
+        this.fsyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMs);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        Files.createDirectories(directory);
+        lockChannel = FileChannel.open(directory.resolve("LOCK"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        lock = tryLock(lockChannel);
+        if (lock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("이미 사용 중인 저널: " + directory);
+        }
+        recover();
+
+        writer = new Thread(this::writeLoop, "journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * 기록 요청, 큐가 가득 차면 기다리지 않고 실패한 future 반환
+     */
+    public CompletableFuture<Long> append(byte[] payload) {
+        Pending pending = new Pending(payload);
+        if (closed || !queue.offer(pending)) {
+            pending.future.completeExceptionally(new IllegalStateException("저널 큐가 가득 찼거나 닫힘"));
+        }
+        return pending.future;
+    }
+
+    public long getDurableOffset() {
+        return durableOffset;
+    }
+
+    /**
+     * fromOffset부터 최대 maxRecords건을 읽음 (fsync된 레코드까지), 반환값은 다음에 읽을 offset
+     */
+    public long read(long fromOffset, int maxRecords, BiConsumer<Long, byte[]> consumer) throws IOException {
+        long limit = durableOffset;
+        long next = fromOffset;
+        int count = 0;
+
+        List<Long> bases = segmentBases();
+        for (int i = 0; i < bases.size() && count < maxRecords && next < limit; i++) {
+            if (i + 1 < bases.size() && bases.get(i + 1) <= next) {
+                continue; // 이후 세그먼트에서 시작
+            }
+            try (FileChannel channel = FileChannel.open(segmentPath(bases.get(i)), StandardOpenOption.READ)) {
+                long position = 0;
+                Record record;
+                while (count < maxRecords && (record = readRecord(channel, position)) != null && record.offset < limit) {
+                    position += HEADER_BYTES + record.payload.length;
+                    if (record.offset >= next) {
+                        consumer.accept(record.offset, record.payload);
+                        next = record.offset + 1;
+                        count++;
+                    }
+                }
+            }
+        }
+        return next;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (active != null) {
+            active.close();
+        }
+        lock.release();
+        lockChannel.close();
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>();
+        while (!closed || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(pollTimeoutNanos(), TimeUnit.NANOSECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, MAX_BATCH - 1);
+                    write(batch);
+                    batch.clear();
+                }
+                if (needsSync()) {
+                    sync();
+                }
+            } catch (InterruptedException e) {
+                closed = true;
+            } catch (IOException | RuntimeException e) {
+                log.error("journal write failed", e);
+                batch.forEach(p -> p.future.completeExceptionally(e)); // 이미 쓴 레코드(unsynced)는 다음 fsync에서 재시도
+                batch.clear();
+            }
+        }
+        try {
+            sync();
+        } catch (IOException e) {
+            log.error("journal sync on close failed", e);
+        }
+    }
+
+    private long pollTimeoutNanos() {
+        if (unsynced.isEmpty() || fsyncIntervalNanos == 0) {
+            return TimeUnit.MILLISECONDS.toNanos(100);
+        }
+        return Math.max(0, fsyncIntervalNanos - (System.nanoTime() - lastSyncNanos));
+    }
+
+    private boolean needsSync() {
+        if (unsynced.isEmpty()) {
+            return false;
+        }
+        if (fsyncEveryRecords > 0 && unsynced.size() >= fsyncEveryRecords) {
+            return true;
+        }
+        if (fsyncIntervalNanos == 0) {
+            return queue.isEmpty(); // 주기가 없으면 밀린 요청을 다 쓴 뒤 바로 fsync
+        }
+        return System.nanoTime() - lastSyncNanos >= fsyncIntervalNanos;
+    }
+
+    private void write(List<Pending> batch) throws IOException {
+        int bytes = 0;
+        for (Pending pending : batch) {
+            bytes += HEADER_BYTES + pending.payload.length;
+        }
+        if (active.size() > 0 && active.size() + bytes > segmentBytes) {
+            roll();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(bytes);
+        for (Pending pending : batch) {
+            CRC32 crc = new CRC32();
+            crc.update(pending.payload);
+            buffer.putInt(pending.payload.length)
+                    .putInt((int) crc.getValue())
+                    .putLong(nextOffset)
+                    .put(pending.payload);
+            pending.offset = nextOffset++;
+        }
+        buffer.flip();
+        long start = active.position();
+        try {
+            while (buffer.hasRemaining()) {
+                active.write(buffer);
+            }
+        } catch (IOException e) {
+            // 일부만 쓰인 레코드를 지워 다음 write가 깨진 꼬리 뒤에 붙지 않게 함
+            active.truncate(start);
+            active.position(start);
+            nextOffset = batch.get(0).offset;
+            throw e;
+        }
+        unsynced.addAll(batch);
+    }
+
+    private void sync() throws IOException {
+        if (unsynced.isEmpty()) {
+            return;
+        }
+        active.force(false);
+        lastSyncNanos = System.nanoTime();
+        durableOffset = nextOffset;
+        unsynced.forEach(p -> p.future.complete(p.offset));
+        unsynced.clear();
+    }
+
+    private void roll() throws IOException {
+        sync();
+        active.close();
+        active = openForAppend(nextOffset);
+    }
+
+    private void recover() throws IOException {
+        List<Long> bases = segmentBases();
+        long base = bases.isEmpty() ? 0 : bases.get(bases.size() - 1);
+        active = openForAppend(base);
+
+        long position = 0;
+        long offset = base;
+        Record record;
+        while ((record = readRecord(active, position)) != null) {
+            position += HEADER_BYTES + record.payload.length;
+            offset = record.offset + 1;
+        }
+        if (position < active.size()) {
+            log.warn("journal segment {} truncated from {} to {} bytes", base, active.size(), position);
+            active.truncate(position);
+        }
+        active.position(position);
+        nextOffset = offset;
+        durableOffset = offset;
+    }
+
+    // 끝이거나 잘렸거나 CRC가 맞지 않으면 null
+    private static Record readRecord(FileChannel channel, long position) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        if (!readFully(channel, header, position)) {
+            return null;
+        }
+        header.flip();
+        int length = header.getInt();
+        int checksum = header.getInt();
+        long offset = header.getLong();
+        if (length < 0 || position + HEADER_BYTES + length > channel.size()) {
+            return null;
+        }
+
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        if (!readFully(channel, payload, position + HEADER_BYTES)) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload.array());
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+        return new Record(offset, payload.array());
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) { // 같은 JVM에서 이미 열려 있음
+            return null;
+        }
+    }
+
+    private FileChannel openForAppend(long base) throws IOException {
+        FileChannel channel = FileChannel.open(segmentPath(base), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        return channel;
+    }
+
+    private List<Long> segmentBases() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(p -> p.getFileName().toString())
+                    .filter(name -> name.endsWith(SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SUFFIX.length())))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private Path segmentPath(long base) {
+        return directory.resolve(String.format("%020d%s", base, SUFFIX));
+    }
+
+    private static class Pending {
+        private final byte[] payload;
+        private final CompletableFuture<Long> future = new CompletableFuture<>();
+        private long offset;
+
+        Pending(byte[] payload) {
+            this.payload = payload;
+        }
+    }
+
+    private static class Record {
+        private final long offset;
+        private final byte[] payload;
+
+        Record(long offset, byte[] payload) {
+            this.offset = offset;
+            this.payload = payload;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.domain.Category;
+import jpabook.jpashop.domain.item.Item;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class CategoryRepository {
+
+    private final EntityManager em;
+
+    public void save(Category category) {
+        em.persist(category);
+    }
+
+    public Category findOne(Long id) {
+        return em.find(Category.class, id);
+    }
+
+    public List<Category> findAll() {
+        return em.createQuery("select c from Category c", Category.class)
+                .getResultList();
+    }
+
+    // 트리 스냅샷 구성용 (id, parentId, name)만 조회
+    public List<Object[]> findAllIdParentName() {
+        return em.createQuery("select c.id, p.id, c.name from Category c left join c.parent p", Object[].class)
+                .getResultList();
+    }
+
+    /**
+     * 여러 카테고리에 속한 상품을 id 순으로 조회 (키셋 페이징)
+     * category_item 조인 테이블의 (category_id, item_id) 인덱스를 사용
+     * 한 상품이 여러 하위 카테고리에 속할 수 있으므로 distinct
+     */
+    public List<Item> findItemsInCategories(Collection<Long> categoryIds, Long afterItemId, int limit) {
+        return em.createQuery("select distinct i from Category c join c.items i " +
+                "where c.id in :categoryIds and i.id > :afterItemId " +
+                "order by i.id", Item.class)
+                .setParameter("categoryIds", categoryIds)
+                .setParameter("afterItemId", afterItemId == null ? 0L : afterItemId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
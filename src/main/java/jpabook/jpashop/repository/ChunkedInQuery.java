@@ -0,0 +1,119 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.datasource.ReadYourWrites;
+import jpabook.jpashop.sql.SqlStatementCounter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 큰 in절 조회를 고정 크기 청크로 나눠 실행
+ *
+ * - 식별자 목록을 chunkSize개씩 나누고, 각 청크는 2의 거듭제곱 크기(최대 chunkSize)로 마지막 값을 반복해 채움
+ *   => DB 파라미터 수 제한을 넘지 않고, in절 길이마다 다른 SQL(실행계획 캐시 항목)이 생기지 않음
+ * - 이미 트랜잭션 안에서 호출되면 그 트랜잭션의 EntityManager로 순서대로 조회 (같은 스냅샷, 추가 커넥션 없음)
+ * - 트랜잭션 밖에서 호출되고 청크가 여러 개면 parallelism개의 스레드에서 청크마다 각자의 읽기 전용 트랜잭션으로 조회
+ *   - 스레드 수와 대기열 크기가 정해진 풀 사용 (JDBC 호출은 블로킹이므로 ForkJoinPool 대신), 대기열이 차면 호출 스레드에서 실행
+ *   - 청크 조회는 JdbcBulkhead 자리를 따로 얻지 않음 (동시 조회 수는 이 풀의 스레드 수로 제한)
+ *     => mode=async 호출은 이미 자리를 하나 잡고 청크를 기다리므로, 청크가 또 자리를 기다리면 자리가 모두 소진되어 503
+ *     => 커넥션 풀 크기는 JdbcBulkhead 자리 수 + parallelism 이상으로 설정
+ *   - 청크마다 트랜잭션이 다르므로 청크끼리, 그리고 호출자가 먼저 읽은 데이터와 스냅샷이 다를 수 있음
+ *     (replica 라우팅을 쓰면 서로 다른 replica에서 읽을 수도 있음)
+ *     => 같은 스냅샷이 필요하면 트랜잭션 안에서 호출 (대신 청크는 순서대로 조회)
+ * - 결과는 끝나는 순서대로 호출 스레드에서 onChunk로 넘김 (onChunk는 동기화 필요 없음)
+ * - 청크 조회 SQL은 호출 스레드의 SqlStatistics에 집계, 읽기 라우팅은 호출 스레드의 마지막 쓰기 시각을 따름
+ *
+ * 패딩으로 중복된 식별자는 in절에서 결과가 늘어나지 않음
+ */
+@Slf4j
+@Component
+public class ChunkedInQuery {
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolExecutor pool;
+    private final int chunkSize;
+    private final int parallelism;
+
+    public ChunkedInQuery(PlatformTransactionManager transactionManager,
+                          @Value("${jpashop.query.in-chunk-size:500}") int chunkSize,
+                          @Value("${jpashop.query.in-parallelism:4}") int parallelism,
+                          @Value("${jpashop.query.in-queue-capacity:256}") int queueCapacity) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        AtomicInteger sequence = new AtomicInteger();
+        int threads = Math.max(1, parallelism);
+        this.pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread thread = new Thread(r, "in-query-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.pool.allowCoreThreadTimeOut(true);
+    }
+
+    public <T> void forEachChunk(List<Long> ids, Function<List<Long>, List<T>> query, Consumer<List<T>> onChunk) {
+        List<List<Long>> chunks = chunks(ids, chunkSize);
+        if (chunks.size() <= 1 || parallelism <= 1 || TransactionSynchronizationManager.isActualTransactionActive()) {
+            chunks.forEach(chunk -> onChunk.accept(query.apply(chunk)));
+            return;
+        }
+
+        CompletionService<List<T>> completion = new ExecutorCompletionService<>(pool);
+        List<Future<List<T>>> futures = new ArrayList<>();
+        for (List<Long> chunk : chunks) {
+            Supplier<List<T>> task = SqlStatementCounter.wrap(ReadYourWrites.wrap(
+                    () -> readOnlyTransaction.execute(status -> query.apply(chunk))));
+            futures.add(completion.submit(task::get));
+        }
+        try {
+            for (int i = 0; i < chunks.size(); i++) {
+                onChunk.accept(completion.take().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("in절 청크 조회 중단", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new IllegalStateException(e.getCause());
+        } finally {
+            futures.forEach(f -> f.cancel(false)); // 실패시 아직 시작하지 않은 청크는 실행하지 않음
+        }
+    }
+
+    /**
+     * size개씩 나누고 각 청크를 2의 거듭제곱 크기(최대 size)로 채움
+     */
+    static List<List<Long>> chunks(List<Long> ids, int size) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += size) {
+            List<Long> chunk = new ArrayList<>(ids.subList(from, Math.min(ids.size(), from + size)));
+            int padded = Math.min(size, Integer.highestOneBit(chunk.size() - 1) << 1);
+            Long last = chunk.get(chunk.size() - 1);
+            while (chunk.size() < padded) {
+                chunk.add(last);
+            }
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    @PreDestroy
+    public void close() {
+        pool.shutdownNow();
+    }
+}
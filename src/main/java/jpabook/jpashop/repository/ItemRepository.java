@@ -5,6 +5,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -29,4 +30,58 @@ public class ItemRepository {
         return em.createQuery("select i from Item i", Item.class)
                 .getResultList();
     }
+
+    /*
+        재고 차감 (조건부 원자적 update)
+        select 후 엔티티 값을 바꾸는 read-modify-write는 동시에 주문이 들어오면 갱신 손실(초과 판매)이 생김
+        재고가 충분할 때만 DB에서 직접 차감하고, 변경된 row 수(0 또는 1)로 성공 여부를 판단
+        벌크 연산이므로 영속성 컨텍스트의 엔티티는 갱신되지 않음 (refresh 필요)
+        버전도 함께 올려 동시에 상품을 수정(변경감지)하던 트랜잭션이 충돌을 감지하도록 함
+     */
+    public int removeStock(Long itemId, int quantity) {
+        return em.createQuery("update Item i set i.stockQuantity = i.stockQuantity - :quantity, i.version = i.version + 1 " +
+                "where i.id = :id and i.stockQuantity >= :quantity")
+                .setParameter("quantity", quantity)
+                .setParameter("id", itemId)
+                .executeUpdate();
+    }
+
+    public int addStock(Long itemId, int quantity) {
+        return em.createQuery("update Item i set i.stockQuantity = i.stockQuantity + :quantity, i.version = i.version + 1 " +
+                "where i.id = :id")
+                .setParameter("quantity", quantity)
+                .setParameter("id", itemId)
+                .executeUpdate();
+    }
+
+    public int findStockQuantity(Long itemId) {
+        return em.createQuery("select i.stockQuantity from Item i where i.id = :id", Integer.class)
+                .setParameter("id", itemId)
+                .getSingleResult();
+    }
+
+    // 벌크 연산 후 영속성 컨텍스트의 엔티티를 DB 값으로 다시 읽음
+    public void refresh(Item item) {
+        if (em.contains(item)) {
+            em.refresh(item);
+        }
+    }
+
+    // 여러 상품을 in쿼리 한 번으로 조회
+    public List<Item> findAllById(Collection<Long> ids) {
+        return em.createQuery("select i from Item i where i.id in :ids", Item.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    // 변경감지 update를 바로 실행 (버전 충돌을 커밋 전에 확인)
+    public void flush() {
+        em.flush();
+    }
+
+    // 일괄 등록시 쌓인 insert/update를 batch로 내보내고 영속성 컨텍스트를 비움 (메모리 사용량 제한)
+    public void flushAndClear() {
+        em.flush();
+        em.clear();
+    }
 }
@@ -0,0 +1,130 @@
+package jpabook.jpashop.repository;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * long 키(부모 id) => 자식 row 범위 색인 (DTO 조립용)
+ *
+ * Collectors.groupingBy(HashMap<Long, List<T>>)는 부모마다 Long 키, HashMap.Node, ArrayList를 만들어
+ * 수십만 건 이상이면 row보다 그룹 자료구조의 할당이 더 커짐
+ *
+ * - row를 키 순으로 정렬한 배열 하나 (이미 정렬되어 있으면 정렬 생략, 정렬된 청크가 이어진 입력은 TimSort가 거의 선형으로 처리)
+ * - 그룹 g의 row는 sorted[groupStarts[g], groupStarts[g + 1])
+ * - 키 => 그룹 번호는 open addressing(선형 탐사) 해시 테이블 long[], int[] (사용률 50% 이하)
+ * => 그룹 수와 관계없이 배열 몇 개만 할당하고 키를 박싱하지 않음
+ *
+ * get/forEachGroup이 주는 목록은 정렬된 배열의 읽기 전용 구간(view) => 원소를 추가/삭제할 수 없음
+ */
+public final class LongGroupIndex<T> {
+
+    private final List<T> sorted;
+    private final long[] groupKeys;
+    private final int[] groupStarts;
+    private final long[] tableKeys;
+    private final int[] tableGroups; // 그룹 번호 + 1, 0이면 빈 칸
+    private final int shift;
+
+    private LongGroupIndex(List<T> sorted, long[] groupKeys, int[] groupStarts, int capacityBits) {
+        this.sorted = sorted;
+        this.groupKeys = groupKeys;
+        this.groupStarts = groupStarts;
+        this.tableKeys = new long[1 << capacityBits];
+        this.tableGroups = new int[1 << capacityBits];
+        this.shift = 64 - capacityBits;
+
+        int mask = tableKeys.length - 1;
+        for (int group = 0; group < groupKeys.length; group++) {
+            int slot = slot(groupKeys[group]);
+            while (tableGroups[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            tableKeys[slot] = groupKeys[group];
+            tableGroups[slot] = group + 1;
+        }
+    }
+
+    public static <T> LongGroupIndex<T> build(List<T> rows, ToLongFunction<? super T> key) {
+        @SuppressWarnings("unchecked")
+        T[] array = (T[]) rows.toArray();
+        if (!isSorted(array, key)) {
+            Arrays.sort(array, Comparator.comparingLong(key)); // 안정 정렬 => 같은 부모 안의 row 순서 유지
+        }
+
+        int groups = 0;
+        for (int i = 0; i < array.length; i++) {
+            if (i == 0 || key.applyAsLong(array[i]) != key.applyAsLong(array[i - 1])) {
+                groups++;
+            }
+        }
+        long[] groupKeys = new long[groups];
+        int[] groupStarts = new int[groups + 1];
+        int group = -1;
+        for (int i = 0; i < array.length; i++) {
+            long k = key.applyAsLong(array[i]);
+            if (group < 0 || k != groupKeys[group]) {
+                groupKeys[++group] = k;
+                groupStarts[group] = i;
+            }
+        }
+        groupStarts[groups] = array.length;
+
+        int capacityBits = Math.max(1, 32 - Integer.numberOfLeadingZeros(Math.max(1, groups * 2 - 1)));
+        return new LongGroupIndex<>(Arrays.asList(array), groupKeys, groupStarts, capacityBits);
+    }
+
+    /**
+     * key의 row 목록, 없으면 null (Map.get과 같음)
+     */
+    public List<T> get(long key) {
+        int mask = tableKeys.length - 1;
+        for (int slot = slot(key); tableGroups[slot] != 0; slot = (slot + 1) & mask) {
+            if (tableKeys[slot] == key) {
+                return group(tableGroups[slot] - 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 키 오름차순으로 그룹 순회
+     */
+    public void forEachGroup(GroupConsumer<T> consumer) {
+        for (int group = 0; group < groupKeys.length; group++) {
+            consumer.accept(groupKeys[group], group(group));
+        }
+    }
+
+    public int groupCount() {
+        return groupKeys.length;
+    }
+
+    public int size() {
+        return sorted.size();
+    }
+
+    private List<T> group(int group) {
+        return sorted.subList(groupStarts[group], groupStarts[group + 1]);
+    }
+
+    // 피보나치 해싱 (연속된 id도 테이블 전체에 고르게 퍼짐)
+    private int slot(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    private static <T> boolean isSorted(T[] array, ToLongFunction<? super T> key) {
+        for (int i = 1; i < array.length; i++) {
+            if (key.applyAsLong(array[i - 1]) > key.applyAsLong(array[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @FunctionalInterface
+    public interface GroupConsumer<T> {
+        void accept(long key, List<T> rows);
+    }
+}
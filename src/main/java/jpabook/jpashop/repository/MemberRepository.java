@@ -2,10 +2,13 @@ package jpabook.jpashop.repository;
 
 import jpabook.jpashop.domain.Member;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Repository
 @RequiredArgsConstructor
@@ -19,6 +22,11 @@ public class MemberRepository {
         em.persist(member); // 영속화, 커밋시점에 DB반영
     }
 
+    // 제약조건 위반(DataIntegrityViolationException)을 커밋이 아닌 호출 시점에 확인
+    public void flush() {
+        em.flush();
+    }
+
     public Member findOne(Long id) {
         return em.find(Member.class, id);
     }
@@ -28,6 +36,39 @@ public class MemberRepository {
                 .getResultList();
     }
 
+    /**
+     * 키셋 페이징 (id, name)만 조회, afterId 다음 회원부터 id 순으로 최대 limit건
+     * pk 인덱스 범위 스캔이므로 몇 번째 페이지든 비용이 같음
+     */
+    public void streamIdAndName(Long afterId, int limit, Consumer<Object[]> consumer) {
+        Stream<Object[]> rows = em.createQuery(
+                "select m.id, m.name from Member m" +
+                        " where m.id > :afterId" +
+                        " order by m.id", Object[].class)
+                .setParameter("afterId", afterId == null ? 0L : afterId)
+                .setMaxResults(limit)
+                .setHint(QueryHints.HINT_FETCH_SIZE, limit)
+                .getResultStream();
+
+        try (rows) {
+            rows.forEach(consumer);
+        }
+    }
+
+    public long count() {
+        return em.createQuery("select count(m) from Member m", Long.class)
+                .getSingleResult();
+    }
+
+    // uk_member_name 인덱스로 한 건만 확인
+    public boolean existsByName(String name) {
+        return !em.createQuery("select m.id from Member m where m.name = :name", Long.class)
+                .setParameter("name", name)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
     public List<Member> findByName(String name){
         return em.createQuery("select m from Member m where m.name = :name", Member.class)
                 .setParameter("name", name)
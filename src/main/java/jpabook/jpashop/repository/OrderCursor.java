@@ -0,0 +1,45 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.exception.InvalidCursorException;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 키셋(seek) 페이징 커서
+ * 마지막으로 조회한 주문의 (orderDate, id)를 기억하고 다음 페이지는 그 이후부터 조회
+ * 클라이언트에게는 "orderId,orderDate"를 Base64로 인코딩한 불투명(opaque) 토큰으로 전달
+ * 해석할 수 없는 토큰은 InvalidCursorException (400)
+ */
+@Getter
+public class OrderCursor {
+
+    private final Long orderId;
+    private final LocalDateTime orderDate;
+
+    public OrderCursor(Long orderId, LocalDateTime orderDate) {
+        this.orderId = orderId;
+        this.orderDate = orderDate;
+    }
+
+    public String encode() {
+        String raw = orderId + "," + orderDate;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int comma = raw.indexOf(',');
+            Long orderId = Long.valueOf(raw.substring(0, comma));
+            LocalDateTime orderDate = LocalDateTime.parse(raw.substring(comma + 1));
+            return new OrderCursor(orderId, orderDate);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new InvalidCursorException("잘못된 커서입니다. cursor=" + token, e);
+        }
+    }
+}
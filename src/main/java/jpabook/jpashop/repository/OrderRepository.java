@@ -93,6 +93,34 @@ public class OrderRepository {
                 .setMaxResults(limit)
                 .getResultList();
     }
+
+    /**
+     * 키셋(seek) 페이징
+     * offset 방식은 앞 페이지의 row를 모두 읽고 버리기 때문에 뒤 페이지로 갈수록 느려짐
+     * 마지막으로 조회한 (orderDate, id) 이후의 row부터 인덱스(idx_orders_order_date_id)를 타고 limit만큼만 읽음
+     * 정렬 기준에 id를 포함하여 orderDate가 같은 주문이 있어도 순서가 안정적으로 유지됨
+     *
+     * after가 null이면 첫 페이지
+     * 컬렉션(orderItems)은 기존과 동일하게 default_batch_fetch_size로 Lazy로딩
+     */
+    public List<Order> findAllWithMemberDelivery(OrderCursor after, int limit) {
+        String jpql = "select o from Order o " +
+                "join fetch o.member m " +
+                "join fetch o.delivery d ";
+        if (after != null) {
+            jpql += "where o.orderDate > :orderDate " +
+                    "or (o.orderDate = :orderDate and o.id > :orderId) ";
+        }
+        jpql += "order by o.orderDate asc, o.id asc";
+
+        TypedQuery<Order> query = em.createQuery(jpql, Order.class)
+                .setMaxResults(limit);
+        if (after != null) {
+            query.setParameter("orderDate", after.getOrderDate())
+                    .setParameter("orderId", after.getOrderId());
+        }
+        return query.getResultList();
+    }
 }
 
 
@@ -0,0 +1,27 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.domain.OrderRequestKey;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+
+@Repository
+@RequiredArgsConstructor
+public class OrderRequestKeyRepository {
+
+    private final EntityManager em;
+
+    /**
+     * 바로 flush해서 키 중복을 커밋 시점이 아니라 여기서 DataIntegrityViolationException으로 알 수 있게 함
+     * 이미 있는 키인지 먼저 조회하지 않음 (처음 쓰는 키는 insert 한 번으로 끝)
+     */
+    public void save(OrderRequestKey requestKey) {
+        em.persist(requestKey);
+        em.flush();
+    }
+
+    public OrderRequestKey findOne(String requestKey) {
+        return em.find(OrderRequestKey.class, requestKey);
+    }
+}
@@ -0,0 +1,33 @@
+package jpabook.jpashop.repository.order.admin;
+
+import jpabook.jpashop.domain.OrderStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 관리자 주문 목록 한 줄 (주문 + 대표상품 = 첫 번째 주문상품)
+ * 주문상품이 없는 주문은 itemName이 null
+ */
+@Data
+public class OrderListDto {
+
+    private Long orderId;
+    private String memberName;
+    private String itemName;
+    private Integer orderPrice;
+    private Integer count;
+    private OrderStatus orderStatus;
+    private LocalDateTime orderDate;
+
+    public OrderListDto(Long orderId, String memberName, String itemName, Integer orderPrice, Integer count,
+                        OrderStatus orderStatus, LocalDateTime orderDate) {
+        this.orderId = orderId;
+        this.memberName = memberName;
+        this.itemName = itemName;
+        this.orderPrice = orderPrice;
+        this.count = count;
+        this.orderStatus = orderStatus;
+        this.orderDate = orderDate;
+    }
+}
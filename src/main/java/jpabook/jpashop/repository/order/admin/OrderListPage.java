@@ -0,0 +1,23 @@
+package jpabook.jpashop.repository.order.admin;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 관리자 주문 목록 한 페이지 (주문 id 내림차순 = 최신순)
+ * nextAfter: 다음(더 오래된) 페이지 커서, prevBefore: 이전(더 최신) 페이지 커서, 없으면 null
+ */
+@Getter
+public class OrderListPage {
+
+    private final List<OrderListDto> rows;
+    private final Long nextAfter;
+    private final Long prevBefore;
+
+    public OrderListPage(List<OrderListDto> rows, Long nextAfter, Long prevBefore) {
+        this.rows = rows;
+        this.nextAfter = nextAfter;
+        this.prevBefore = prevBefore;
+    }
+}
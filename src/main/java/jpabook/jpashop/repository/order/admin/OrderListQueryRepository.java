@@ -0,0 +1,102 @@
+package jpabook.jpashop.repository.order.admin;
+
+import jpabook.jpashop.domain.OrderSearch;
+import jpabook.jpashop.search.MemberNameIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 관리자 주문 목록 화면용 조회
+ *
+ * 주문, 회원, 대표상품(주문상품 id가 가장 작은 주문상품)을 SQL 한 번에 DTO로 조회
+ * => 화면에서 order.orderItems[0].item.name처럼 지연로딩을 타지 않음 (open-in-view: false에서도 안전)
+ *
+ * 키셋 페이징 (주문 id 기준, 최신순)
+ * - afterId: 그보다 오래된 주문부터 (다음 페이지)
+ * - beforeId: 그보다 최신 주문 중 가장 오래된 것부터 (이전 페이지, 오름차순으로 읽어서 뒤집음)
+ * - 둘 다 null이면 첫 페이지
+ * limit + 1건을 읽어 더 있는지 판단
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderListQueryRepository {
+
+    private final EntityManager em;
+
+    /**
+     * memberIds가 null이 아니면 회원명 조건에 member_id in (...) 조건을 더함 (MemberNameIndex 검색 후보)
+     * 후보에는 이름이 맞지 않는 회원이 섞일 수 있으므로 회원명 like 조건도 그대로 적용
+     */
+    public OrderListPage findPage(OrderSearch orderSearch, Collection<Long> memberIds,
+                                  Long afterId, Long beforeId, int limit) {
+        boolean backward = afterId == null && beforeId != null;
+        boolean byName = StringUtils.hasText(orderSearch.getMemberName());
+
+        String jpql = "select new jpabook.jpashop.repository.order.admin.OrderListDto(" +
+                "o.id, m.name, i.name, oi.orderPrice, oi.count, o.status, o.orderDate)" +
+                " from Order o" +
+                " join o.member m" +
+                " left join o.orderItems oi" +
+                " left join oi.item i" +
+                " where (oi.id is null or oi.id = (select min(oi2.id) from OrderItem oi2 where oi2.order = o))";
+        if (orderSearch.getOrderStatus() != null) {
+            jpql += " and o.status = :status";
+        }
+        if (memberIds != null) {
+            jpql += " and m.id in :memberIds";
+        }
+        if (byName) {
+            jpql += " and lower(m.name) like :name escape '" + MemberNameIndex.LIKE_ESCAPE + "'";
+        }
+        if (afterId != null) {
+            jpql += " and o.id < :afterId";
+        } else if (beforeId != null) {
+            jpql += " and o.id > :beforeId";
+        }
+        jpql += backward ? " order by o.id asc" : " order by o.id desc";
+
+        TypedQuery<OrderListDto> query = em.createQuery(jpql, OrderListDto.class)
+                .setMaxResults(limit + 1);
+        if (orderSearch.getOrderStatus() != null) {
+            query.setParameter("status", orderSearch.getOrderStatus());
+        }
+        if (memberIds != null) {
+            query.setParameter("memberIds", memberIds);
+        }
+        if (byName) {
+            query.setParameter("name", MemberNameIndex.likePattern(orderSearch.getMemberName()));
+        }
+        if (afterId != null) {
+            query.setParameter("afterId", afterId);
+        } else if (beforeId != null) {
+            query.setParameter("beforeId", beforeId);
+        }
+
+        List<OrderListDto> rows = query.getResultList();
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) {
+            rows = new ArrayList<>(rows.subList(0, limit));
+        }
+        if (rows.isEmpty()) {
+            return new OrderListPage(rows, null, null);
+        }
+        if (backward) {
+            Collections.reverse(rows);
+        }
+
+        Long first = rows.get(0).getOrderId();
+        Long last = rows.get(rows.size() - 1).getOrderId();
+        if (backward) {
+            return new OrderListPage(rows, last, hasMore ? first : null);
+        }
+        return new OrderListPage(rows, hasMore ? last : null, afterId != null ? first : null);
+    }
+}
@@ -1,13 +1,22 @@
 package jpabook.jpashop.repository.order.query;
 
+import jpabook.jpashop.concurrent.Coalesced;
+import jpabook.jpashop.domain.Address;
 import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.repository.ChunkedInQuery;
+import jpabook.jpashop.repository.LongGroupIndex;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * 패치 조인보다 select절을 최적화함으로 어느정도 성능 향상을 기대할 수 있지만 코드의 양과 재사용성 측면에서 Trade off 발생
@@ -17,6 +26,7 @@ import java.util.stream.Collectors;
 public class OrderQueryRepository {
 
     private final EntityManager em;
+    private final ChunkedInQuery chunkedInQuery;
 
     /*
         (1). 컬렉션 부분을 제외하고는 단순하게 DTO로 직접 조회
@@ -39,8 +49,19 @@ public class OrderQueryRepository {
     /*
         ToOne관계를 먼저 조회회하여 얻은 결과에서 식별자를 리스트화하여 ToMany관계 조회시 in절의 파라미터로 사용
             => 2번의 쿼리 (ToOne 한 번, ToMany 한 번)
-        후에 Map을 통해 값을 매칭해줌으로 성능향상 (메모리 상에서 매칭)
+        후에 주문 id로 값을 매칭해줌으로 성능향상 (메모리 상에서 매칭)
+        동시에 들어온 호출은 하나로 합쳐 같은 결과 목록을 공유 (@Coalesced)
+
+        주문이 많으면 in절을 고정 크기 청크로 나눠 병렬로 조회하고 (ChunkedInQuery)
+        청크 결과가 도착하는 대로 한 목록에 모은 뒤 주문 id로 색인 (LongGroupIndex)
+            => 주문마다 Long 키/HashMap 엔트리/ArrayList를 만들지 않음
+
+        트랜잭션 없이 호출하므로 주문과 청크는 각자 다른 트랜잭션(스냅샷)에서 읽음
+            주문상품은 주문과 함께 저장되고 바뀌지 않으므로 보통은 차이가 없지만,
+            replica 라우팅을 쓰면 주문(primary)보다 복제가 늦은 replica에서 방금 생긴 주문의 주문상품이 빠질 수 있음 (orderItems null)
+            => 같은 스냅샷이 필요한 호출자는 읽기 전용 트랜잭션 안에서 호출 (청크는 순서대로 조회)
     */
+    @Coalesced
     public List<OrderQueryDto> findAllByDto_Optimization() {
 
         List<OrderQueryDto> result = findOrders(); // 컬렉션이 아닌 엔티티 조회
@@ -49,22 +70,14 @@ public class OrderQueryRepository {
                 .map(o -> o.getOrderId())
                 .collect(Collectors.toList());
 
-        // 일단 in절을 사용해서 모두 가져오고 컬렉션의 매칭은 메모리에서 수행하도록
-        List<OrderItemQueryDto> orderItems = em.createQuery(
-                "select new jpabook.jpashop.repository.order.query.OrderItemQueryDto(oi.order.id, i.name, oi.orderPrice, oi.count)" +
-                        " from OrderItem oi" +
-                        " join oi.item i" +
-                        " where oi.order.id in :orderIds", OrderItemQueryDto.class) // in절 사용
-                .setParameter("orderIds", orderIds)
-                .getResultList();
+        // in절 청크 단위로 가져오고 컬렉션의 매칭은 메모리에서 수행하도록
+        // 청크마다 주문 id 순으로 정렬되어 있으므로 색인시 정렬은 정렬된 구간 병합 수준
+        List<OrderItemQueryDto> orderItems = new ArrayList<>(orderIds.size());
+        chunkedInQuery.forEachChunk(orderIds, this::findOrderItemsIn, orderItems::addAll);
+        LongGroupIndex<OrderItemQueryDto> orderItemIndex = LongGroupIndex.build(orderItems, OrderItemQueryDto::getOrderId);
 
-        // Order의 ID값을 키 값으로, 컬렉션을 값으로 하는 Map 생성
-        // 메모리에서 조회된 값을 매칭
-        Map<Long, List<OrderItemQueryDto>> orderItemMap = orderItems.stream()
-                .collect(Collectors.groupingBy(orderItemQueryDto -> orderItemQueryDto.getOrderId()));
-
-        // 컬렉션 채워넣기
-        result.forEach(o -> o.setOrderItems(orderItemMap.get(o.getOrderId())));
+        // 컬렉션 채워넣기 (주문상품이 없는 주문은 기존과 같이 null)
+        result.forEach(o -> o.setOrderItems(orderItemIndex.get(o.getOrderId())));
 
         return result;
     }
@@ -72,7 +85,7 @@ public class OrderQueryRepository {
     public List<OrderFlatDto> findAllByDto_Flat() {
 
         return em.createQuery(
-                "select new jpabook.jpashop.repository.order.query.OrderFlatDto(o.id, m.name, o.orderDate, o.status, d.address, i.name, oi.orderPrice, oi.count) " +
+                "select new jpabook.jpashop.repository.order.query.OrderFlatDto(o.id, m.name, o.orderDate, d.address, o.status, i.name, oi.orderPrice, oi.count) " +
                         " from Order o" +
                         " join o.member m" +
                         " join o.delivery d" +
@@ -81,6 +94,82 @@ public class OrderQueryRepository {
                 .getResultList();
     }
 
+    /*
+        v6 플랫 조회 결과를 주문 단위로 다시 묶음 (v5와 같은 형식, 쿼리는 한 번)
+        groupingBy 대신 주문 id로 색인해 키 박싱/그룹별 Map 엔트리 없이 묶고, 주문 id 순으로 반환
+     */
+    public List<OrderQueryDto> findAllByDto_FlatGrouped() {
+        LongGroupIndex<OrderFlatDto> index = LongGroupIndex.build(findAllByDto_Flat(), OrderFlatDto::getOrderId);
+
+        List<OrderQueryDto> result = new ArrayList<>(index.groupCount());
+        index.forEachGroup((orderId, rows) -> {
+            List<OrderItemQueryDto> orderItems = new ArrayList<>(rows.size());
+            for (OrderFlatDto row : rows) {
+                orderItems.add(new OrderItemQueryDto(row.getOrderId(), row.getItemName(), row.getOrderPrice(), row.getCount()));
+            }
+            OrderFlatDto first = rows.get(0);
+            result.add(new OrderQueryDto(first.getOrderId(), first.getName(), first.getOrderDate(),
+                    first.getOrderStatus(), first.getAddress(), orderItems));
+        });
+        return result;
+    }
+
+    /*
+        전체 주문 스트리밍 조회 (대용량 export용)
+        결과 List를 만들지 않고 forward-only 커서로 한 row씩 읽음 (streamAllRows)
+        row는 주문 id 순으로 정렬되어 있으므로 연속된 row를 하나의 OrderQueryDto로 묶어서 consumer에 넘김
+        주문상품이 없는 주문도 포함 (orderItems는 빈 목록)
+        스칼라 조회라 영속성 컨텍스트에 엔티티가 쌓이지 않음 => 주문 수와 관계없이 메모리 사용량 일정
+
+        트랜잭션 안에서 호출해야 함 (커서가 열려있는 동안 커넥션을 유지해야 하기 때문)
+     */
+    public void streamAllByDto(int fetchSize, Consumer<OrderQueryDto> consumer) {
+        OrderQueryDto[] current = {null};
+        streamAllRows(fetchSize, row -> {
+            Long orderId = (Long) row[0];
+            if (current[0] == null || !current[0].getOrderId().equals(orderId)) {
+                if (current[0] != null) {
+                    consumer.accept(current[0]);
+                }
+                current[0] = new OrderQueryDto(orderId, (String) row[1], (LocalDateTime) row[2], (OrderStatus) row[3],
+                        new Address((String) row[4], (String) row[5], (String) row[6]), new ArrayList<>());
+            }
+            if (row[8] != null) { // 주문상품이 없는 주문은 상품 컬럼이 null인 row 하나
+                current[0].getOrderItems().add(new OrderItemQueryDto(orderId, (String) row[7], (Integer) row[8], (Integer) row[9]));
+            }
+        });
+        if (current[0] != null) {
+            consumer.accept(current[0]);
+        }
+    }
+
+    /*
+        전체 주문 스칼라 조회 (DTO/엔티티 생성 없이 Object[] row 그대로 전달)
+        row: [주문id, 회원명, 주문일시, 주문상태, city, street, zipcode, 상품명, 주문가격, 수량]
+        주문상품이 없는 주문은 상품 컬럼이 null인 row 하나, row는 주문 id 순
+        트랜잭션 안에서 호출해야 함
+
+        MySQL은 fetchSize가 Integer.MIN_VALUE면 이 조회만 한 row씩 스트리밍 (그 외 값이면 드라이버가 전체 결과를 메모리에 올림)
+        url의 useCursorFetch=true는 모든 쿼리를 서버 prepared statement로 바꾸므로 쓰지 않음
+     */
+    public void streamAllRows(int fetchSize, Consumer<Object[]> consumer) {
+        Stream<Object[]> rows = em.createQuery(
+                "select o.id, m.name, o.orderDate, o.status, d.address.city, d.address.street, d.address.zipcode," +
+                        " i.name, oi.orderPrice, oi.count" +
+                        " from Order o" +
+                        " join o.member m" +
+                        " join o.delivery d" +
+                        " left join o.orderItems oi" +
+                        " left join oi.item i" +
+                        " order by o.id", Object[].class)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+
+        try (rows) {
+            rows.forEach(consumer);
+        }
+    }
+
     // 컬렉션이 아닌 엔티티 조회 ToOne관계
     private List<OrderQueryDto> findOrders() {
         return em.createQuery(
@@ -90,6 +179,18 @@ public class OrderQueryRepository {
                         "join o.delivery d", OrderQueryDto.class).getResultList();
     }
 
+    // 컬렉션 엔티티 조회 ToMany관계 (in절 사용, orderIds는 ChunkedInQuery가 나눈 청크)
+    private List<OrderItemQueryDto> findOrderItemsIn(List<Long> orderIds) {
+        return em.createQuery(
+                "select new jpabook.jpashop.repository.order.query.OrderItemQueryDto(oi.order.id, i.name, oi.orderPrice, oi.count)" +
+                        " from OrderItem oi" +
+                        " join oi.item i" +
+                        " where oi.order.id in :orderIds" +
+                        " order by oi.order.id", OrderItemQueryDto.class)
+                .setParameter("orderIds", orderIds)
+                .getResultList();
+    }
+
     // 컬렉션 엔티티 조회 ToMany관계
     private List<OrderItemQueryDto> findOrderItems(Long orderId) {
         return em.createQuery(
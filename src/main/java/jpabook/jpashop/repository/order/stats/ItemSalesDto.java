@@ -0,0 +1,19 @@
+package jpabook.jpashop.repository.order.stats;
+
+import lombok.Data;
+
+@Data
+public class ItemSalesDto {
+
+    private Long itemId;
+    private String name;
+    private long revenue;
+    private long quantity;
+
+    public ItemSalesDto(Long itemId, String name, long revenue, long quantity) {
+        this.itemId = itemId;
+        this.name = name;
+        this.revenue = revenue;
+        this.quantity = quantity;
+    }
+}
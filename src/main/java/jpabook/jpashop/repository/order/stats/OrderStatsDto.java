@@ -0,0 +1,28 @@
+package jpabook.jpashop.repository.order.stats;
+
+import lombok.Data;
+
+/**
+ * 주문 집계 한 행 (key: 날짜, 주문상태, 카테고리명 등 group by 기준)
+ * revenue는 주문상품의 orderPrice * count 합
+ */
+@Data
+public class OrderStatsDto {
+
+    private String key;
+    private long revenue;
+    private long orderCount;
+    private long quantity;
+
+    public OrderStatsDto(String key, long revenue, long orderCount, long quantity) {
+        this.key = key;
+        this.revenue = revenue;
+        this.orderCount = orderCount;
+        this.quantity = quantity;
+    }
+
+    // 주문 한 건당 평균 금액
+    public long getAverageBasket() {
+        return orderCount == 0 ? 0 : revenue / orderCount;
+    }
+}
@@ -0,0 +1,108 @@
+package jpabook.jpashop.repository.order.stats;
+
+import jpabook.jpashop.domain.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * 주문 통계 (매출, 주문 수, 평균 주문금액, 판매 수량)
+ * order_item과 orders를 조인해 DB에서 group by로 집계 => 엔티티를 하나도 로딩하지 않음
+ * 기간 조건(orderDate >= from and orderDate < to)은 idx_orders_order_date_id 인덱스를 탐
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderStatsRepository {
+
+    private static final String REVENUE = "sum(oi.orderPrice * oi.count)";
+
+    private final EntityManager em;
+
+    // 일별, status가 null이면 전체 상태
+    public List<OrderStatsDto> findDailyStats(LocalDateTime from, LocalDateTime to, OrderStatus status) {
+        List<Object[]> rows = em.createQuery(
+                "select cast(o.orderDate as date), " + REVENUE + ", count(distinct o.id), sum(oi.count)" +
+                        " from OrderItem oi" +
+                        " join oi.order o" +
+                        " where o.orderDate >= :from and o.orderDate < :to" +
+                        " and (:status is null or o.status = :status)" +
+                        " group by cast(o.orderDate as date)" +
+                        " order by cast(o.orderDate as date)", Object[].class)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setParameter("status", status)
+                .getResultList();
+
+        return rows.stream()
+                .map(row -> new OrderStatsDto(toLocalDate(row[0]).toString(),
+                        (Long) row[1], (Long) row[2], (Long) row[3]))
+                .collect(toList());
+    }
+
+    public List<OrderStatsDto> findStatusStats(LocalDateTime from, LocalDateTime to) {
+        return em.createQuery(
+                "select new jpabook.jpashop.repository.order.stats.OrderStatsDto(" +
+                        "str(o.status), " + REVENUE + ", count(distinct o.id), sum(oi.count))" +
+                        " from OrderItem oi" +
+                        " join oi.order o" +
+                        " where o.orderDate >= :from and o.orderDate < :to" +
+                        " group by o.status", OrderStatsDto.class)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList();
+    }
+
+    // 여러 카테고리에 속한 상품의 매출은 각 카테고리에 모두 포함됨
+    public List<OrderStatsDto> findCategoryStats(LocalDateTime from, LocalDateTime to, OrderStatus status) {
+        return em.createQuery(
+                "select new jpabook.jpashop.repository.order.stats.OrderStatsDto(" +
+                        "c.name, " + REVENUE + ", count(distinct o.id), sum(oi.count))" +
+                        " from OrderItem oi" +
+                        " join oi.order o" +
+                        " join oi.item i" +
+                        " join i.categories c" +
+                        " where o.orderDate >= :from and o.orderDate < :to" +
+                        " and (:status is null or o.status = :status)" +
+                        " group by c.id, c.name" +
+                        " order by " + REVENUE + " desc", OrderStatsDto.class)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setParameter("status", status)
+                .getResultList();
+    }
+
+    public List<ItemSalesDto> findTopItems(LocalDateTime from, LocalDateTime to, OrderStatus status, int limit) {
+        return em.createQuery(
+                "select new jpabook.jpashop.repository.order.stats.ItemSalesDto(" +
+                        "i.id, i.name, " + REVENUE + ", sum(oi.count))" +
+                        " from OrderItem oi" +
+                        " join oi.order o" +
+                        " join oi.item i" +
+                        " where o.orderDate >= :from and o.orderDate < :to" +
+                        " and (:status is null or o.status = :status)" +
+                        " group by i.id, i.name" +
+                        " order by " + REVENUE + " desc", ItemSalesDto.class)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setParameter("status", status)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // cast(... as date) 결과는 java.sql.Date
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate();
+        }
+        if (value instanceof LocalDate) {
+            return (LocalDate) value;
+        }
+        return LocalDate.parse(String.valueOf(value));
+    }
+}
@@ -0,0 +1,63 @@
+package jpabook.jpashop.repository.order.summary;
+
+import jpabook.jpashop.domain.OrderSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+/**
+ * 주문 요약 테이블(order_summary) 조회
+ * 조인 없이 한 테이블만 읽음
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderSummaryRepository {
+
+    private final EntityManager em;
+
+    public void save(OrderSummary orderSummary) {
+        em.persist(orderSummary);
+    }
+
+    public OrderSummary findOne(Long orderId) {
+        return em.find(OrderSummary.class, orderId);
+    }
+
+    public List<OrderSummaryDto> findSummaryDtos(int offset, int limit) {
+        return em.createQuery(
+                "select new jpabook.jpashop.repository.order.summary.OrderSummaryDto(s.orderId, s.memberName, s.orderDate, s.status, s.address, s.totalPrice, s.lineCount) " +
+                        "from OrderSummary s " +
+                        "order by s.orderId", OrderSummaryDto.class)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /*
+        요약 row가 없는 주문의 요약을 한 번에 채움 (insert ... select, 엔티티 로딩 없음)
+        요약 테이블 도입 전의 주문, 이벤트 없이 저장된 주문(dbInit 등)이 대상
+        총액/주문상품 수는 OrderSummary.createOrderSummary와 같은 기준 (주문상품이 없으면 0)
+     */
+    public int insertMissing() {
+        return em.createNativeQuery(
+                "insert into order_summary (order_id, member_id, member_name, city, street, zipcode, order_date, status, total_price, line_count)" +
+                        " select o.id, m.id, m.name, d.city, d.street, d.zipcode, o.order_date, o.status," +
+                        " coalesce(sum(oi.order_price * oi.count), 0), count(oi.id)" +
+                        " from orders o" +
+                        " join member m on m.id = o.member_id" +
+                        " join delivery d on d.id = o.delivery_id" +
+                        " left join order_item oi on oi.order_id = o.id" +
+                        " where not exists (select 1 from order_summary s where s.order_id = o.id)" +
+                        " group by o.id, m.id, m.name, d.city, d.street, d.zipcode, o.order_date, o.status")
+                .executeUpdate();
+    }
+
+    public int updateMemberName(Long memberId, String memberName) {
+        return em.createQuery("update OrderSummary s set s.memberName = :memberName where s.memberId = :memberId")
+                .setParameter("memberName", memberName)
+                .setParameter("memberId", memberId)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,140 @@
+package jpabook.jpashop.search;
+
+import jpabook.jpashop.domain.event.MemberJoinedEvent;
+import jpabook.jpashop.domain.event.MemberNameChangedEvent;
+import jpabook.jpashop.repository.MemberRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 가입된 회원 이름 Bloom filter (메모리)
+ *
+ * mightContain이 false면 그 이름은 (이 노드가 아는 한) 확실히 없음 => 회원가입시 중복 확인 쿼리를 생략
+ * true면 있을 수도 있음 => 쿼리로 확인 (오탐률 falsePositiveRate)
+ * 다른 노드에서 방금 가입한 이름처럼 필터가 모르는 중복은 uk_member_name 제약조건이 막음
+ *
+ * - 시작시 전체 회원 이름으로 구성 (키셋 페이징으로 PAGE_SIZE명씩 읽음), 이후 회원가입/이름변경이 커밋되면 추가
+ * - 삭제는 불가 => 바뀌기 전 이름은 계속 true (쿼리 한 번 더 할 뿐 결과는 정확)
+ * - 대소문자/공백을 무시하는 DB collation에서도 놓치지 않도록 소문자, 앞뒤 공백 제거 후 저장
+ * - 비트 설정은 CAS로 처리해 락 없음
+ * - 구성 전(isReady() == false)에는 항상 true
+ */
+@Slf4j
+@Component
+public class MemberNameFilter {
+
+    private static final int PAGE_SIZE = 10000;
+
+    private final MemberRepository memberRepository;
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int hashCount;
+    private final AtomicLong added = new AtomicLong();
+    private volatile boolean ready;
+
+    public MemberNameFilter(MemberRepository memberRepository,
+                            @Value("${jpashop.member.name-filter.expected-names:10000000}") long expectedNames,
+                            @Value("${jpashop.member.name-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.memberRepository = memberRepository;
+        // m = -n ln p / (ln 2)^2, k = m/n ln 2
+        long optimalBits = (long) Math.ceil(-expectedNames * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, (optimalBits + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitSize = (long) words * 64;
+        this.hashCount = (int) Math.max(1, Math.round((double) bitSize / expectedNames * Math.log(2)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void build() {
+        long[] last = {0L};
+        int[] read = {0};
+        do {
+            read[0] = 0;
+            memberRepository.streamIdAndName(last[0], PAGE_SIZE, row -> {
+                last[0] = (Long) row[0];
+                read[0]++;
+                put((String) row[1]);
+            });
+        } while (read[0] == PAGE_SIZE);
+        ready = true;
+        log.info("member name filter ready. names={}, bits={}, hashes={}", added.get(), bitSize, hashCount);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMemberJoined(MemberJoinedEvent event) {
+        put(event.getName());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMemberNameChanged(MemberNameChangedEvent event) {
+        put(event.getName());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean mightContain(String name) {
+        if (name == null) {
+            return false;
+        }
+        if (!ready) {
+            return true;
+        }
+        long[] hash = hash(name);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash[0] + i * hash[1], bitSize);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void put(String name) {
+        if (name == null) {
+            return;
+        }
+        long[] hash = hash(name);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash[0] + i * hash[1], bitSize);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            while (((current = bits.get(word)) & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                // 다른 스레드가 같은 word를 바꿈 => 다시 시도
+            }
+        }
+        added.incrementAndGet();
+    }
+
+    // FNV-1a 64bit 후 섞어서 해시 두 개를 만들고 h1 + i*h2로 k개 위치를 만듦 (Kirsch-Mitzenmacher)
+    private static long[] hash(String name) {
+        byte[] bytes = name.strip().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+        long h = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        long h1 = mix(h);
+        long h2 = mix(h1 ^ 0x9e3779b97f4a7c15L) | 1; // 홀수로 만들어 위치가 한 곳에 몰리지 않게 함
+        return new long[]{h1, h2};
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+}
@@ -0,0 +1,244 @@
+package jpabook.jpashop.search;
+
+import jpabook.jpashop.domain.event.MemberJoinedEvent;
+import jpabook.jpashop.domain.event.MemberNameChangedEvent;
+import jpabook.jpashop.repository.MemberRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 회원 이름 3-gram 역색인 (메모리)
+ *
+ * like '%name%'은 인덱스를 탈 수 없어 주문이 늘어날수록 느려짐
+ * 이름을 3글자 n-gram으로 쪼개 n-gram => 회원 id 목록을 만들어 두고,
+ * 검색어로 회원 id 후보를 먼저 찾은 뒤 주문은 member_id in (...)으로 조회
+ *
+ * - 검색어가 3글자: 해당 3-gram의 목록
+ * - 4글자 이상: 검색어의 모든 3-gram 목록의 교집합 (이름 전체를 들고 있지 않으므로 실제로는 포함하지 않는 회원이 섞일 수 있음)
+ *   => 후보이므로 호출자는 회원명 like 조건을 함께 걸어야 함
+ * - 3글자 미만이거나 후보가 maxResults개를 넘으면 null (복사하기 전에 목록 크기로 판단) => like 검색
+ *
+ * 메모리: 회원 id는 3-gram마다 정렬된 long 배열로 저장 (박싱/해시 엔트리 없음)
+ *   회원당 (이름 길이 - 2)개 x 8byte, 배열 여유분 포함 최대 2배
+ *   => 5백만 회원, 평균 3-gram 5개면 약 200~400MB
+ *
+ * 시작시 전체 회원을 키셋 페이징으로 읽어 색인을 만들고, 이후 이 노드에서 회원가입/이름변경이 커밋되면 갱신
+ * 색인을 만드는 동안 들어온 변경은 회원 id를 기억해 두고, 조회한 (더 오래된) 이름으로 덮어쓰지 않음
+ * 색인이 준비되기 전(isReady() == false)에는 기존 like 검색을 사용해야 함
+ *
+ * 색인 범위는 이 노드: 다른 노드에서 가입/이름변경한 회원은 재시작 전까지 색인에 없음
+ * => 여러 노드로 운영하면 jpashop.member.name-index.enabled=false로 끄거나 (항상 like 검색),
+ *    색인에서 찾지 못한 검색어는 like 검색으로 다시 확인해야 함 (OrderService.findMemberIdsByName)
+ *
+ * 이름은 앞뒤 공백을 없애고 소문자로 비교 (normalize), like 검색도 likePattern()으로 같은 규칙을 따라야 함
+ */
+@Slf4j
+@Component
+public class MemberNameIndex {
+
+    private static final int GRAM = 3;
+    private static final int PAGE_SIZE = 10000;
+    public static final char LIKE_ESCAPE = '!';
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+
+    private final Map<String, Posting> postings = new ConcurrentHashMap<>();
+    private final Set<Long> changedDuringBuild = new HashSet<>(); // index()와 같은 락으로 보호
+    private volatile boolean ready;
+
+    public MemberNameIndex(MemberRepository memberRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${jpashop.member.name-index.enabled:true}") boolean enabled) {
+        this.memberRepository = memberRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    // 페이지마다 짧은 읽기 전용 트랜잭션 (전체 회원을 한 목록/한 트랜잭션으로 읽지 않음)
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) {
+            log.info("member name index disabled");
+            return;
+        }
+        long[] last = {0L};
+        int read;
+        long members = 0;
+        do {
+            int[] count = {0};
+            readOnlyTransaction.executeWithoutResult(status -> memberRepository.streamIdAndName(last[0], PAGE_SIZE, row -> {
+                last[0] = (Long) row[0];
+                count[0]++;
+                indexIfUnchanged((Long) row[0], (String) row[1]);
+            }));
+            read = count[0];
+            members += read;
+        } while (read == PAGE_SIZE);
+        finishBuild();
+        log.info("member name index ready. members={}, grams={}", members, postings.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMemberJoined(MemberJoinedEvent event) {
+        onChanged(event.getMemberId(), null, event.getName());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMemberNameChanged(MemberNameChangedEvent event) {
+        onChanged(event.getMemberId(), event.getOldName(), event.getName());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 이름에 query가 포함될 수 있는 회원 id 후보 (like 조건으로 다시 확인해야 함)
+     * 색인으로 찾을 수 없으면 null (3글자 미만 검색어, 후보가 maxResults개 초과)
+     */
+    public Set<Long> search(String query, int maxResults) {
+        String normalized = normalize(query);
+        if (normalized.length() < GRAM) {
+            return null;
+        }
+
+        // 가장 짧은 목록부터 교집합
+        List<Posting> lists = new ArrayList<>();
+        for (String gram : grams(normalized)) {
+            Posting posting = postings.get(gram);
+            if (posting == null) {
+                return Collections.emptySet();
+            }
+            lists.add(posting);
+        }
+        lists.sort(Comparator.comparingInt(Posting::size));
+        if (lists.get(0).size() > maxResults) {
+            return null;
+        }
+
+        Set<Long> result = lists.get(0).toSet();
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            Posting posting = lists.get(i);
+            result.removeIf(id -> !posting.contains(id));
+        }
+        return result;
+    }
+
+    /**
+     * like 검색 패턴 (normalize 후 %, _를 LIKE_ESCAPE로 이스케이프)
+     * lower(m.name) like :pattern escape '!' 로 사용하면 색인 검색과 같은 규칙
+     * escape 문자를 '\'로 하면 MySQL 문자열 리터럴에서 다시 이스케이프되므로 '!' 사용
+     */
+    public static String likePattern(String query) {
+        String escaped = normalize(query)
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return "%" + escaped + "%";
+    }
+
+    public static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private synchronized void onChanged(Long memberId, String oldName, String name) {
+        if (!ready) {
+            changedDuringBuild.add(memberId);
+        }
+        for (String gram : grams(normalize(oldName))) {
+            Posting posting = postings.get(gram);
+            if (posting != null && posting.remove(memberId) == 0) {
+                postings.remove(gram);
+            }
+        }
+        index(memberId, name);
+    }
+
+    // 색인 중에 들어온 변경이 조회한 이름보다 최신
+    private synchronized void indexIfUnchanged(Long memberId, String name) {
+        if (!changedDuringBuild.contains(memberId)) {
+            index(memberId, name);
+        }
+    }
+
+    private synchronized void finishBuild() {
+        ready = true;
+        changedDuringBuild.clear();
+    }
+
+    private synchronized void index(Long memberId, String name) {
+        for (String gram : grams(normalize(name))) {
+            postings.computeIfAbsent(gram, g -> new Posting()).add(memberId);
+        }
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            result.add(text.substring(i, i + GRAM));
+        }
+        return result;
+    }
+
+    /**
+     * 3-gram 하나의 회원 id 목록 (정렬된 long 배열)
+     * 새 회원 id는 대부분 가장 크므로 추가는 끝에 붙이는 것으로 끝남
+     */
+    static class Posting {
+
+        private long[] ids = new long[2];
+        private int size;
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized void add(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) {
+                return;
+            }
+            at = -at - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        // 남은 회원 수를 반환
+        synchronized int remove(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) {
+                System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+                size--;
+            }
+            return size;
+        }
+
+        synchronized boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        synchronized Set<Long> toSet() {
+            Set<Long> result = new HashSet<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                result.add(ids[i]);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.config.CacheConfig;
+import jpabook.jpashop.domain.Category;
+import jpabook.jpashop.domain.event.CategoryChangedEvent;
+import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class CategoryService {
+
+    private final CategoryRepository categoryRepository;
+    private final CategoryTreeHolder categoryTreeHolder;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public Long saveCategory(Category category) {
+        categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(category.getId()));
+        return category.getId();
+    }
+
+    @Cacheable(value = CacheConfig.CATEGORY, unless = "#result == null")
+    public CategoryView findCategory(Long id) {
+        Category category = categoryRepository.findOne(id);
+        return category == null ? null : CategoryView.of(category);
+    }
+
+    @Transactional
+    @CacheEvict(value = CacheConfig.CATEGORY, key = "#id")
+    public void updateCategory(Long id, String name) {
+        Category findCategory = categoryRepository.findOne(id);
+        findCategory.setName(name);
+        eventPublisher.publishEvent(new CategoryChangedEvent(id));
+    }
+
+    /*
+        카테고리 하위 트리 전체의 상품 조회 (키셋 페이징)
+        하위 카테고리 목록은 트리 스냅샷에서 바로 꺼내고, 상품은 category_item에 대한 in쿼리 한 번으로 조회
+     */
+    public List<Item> findItemsUnder(Long categoryId, Long afterItemId, int limit) {
+        CategoryTree tree = categoryTreeHolder.getTree();
+        if (!tree.contains(categoryId)) {
+            return new ArrayList<>();
+        }
+        return categoryRepository.findItemsInCategories(tree.descendantsOf(categoryId), afterItemId, limit);
+    }
+}
@@ -0,0 +1,137 @@
+package jpabook.jpashop.service;
+
+import java.util.*;
+
+/**
+ * 카테고리 트리 스냅샷 (불변)
+ *
+ * Category는 parent/child 인접 리스트라서 하위 트리를 따라가려면 단계마다, 노드마다 Lazy로딩이 발생함
+ * 시작시(그리고 카테고리가 바뀔 때마다) 전체 카테고리를 한 번에 읽어 트리를 만들고
+ * 각 노드의 조상/자손 목록(closure)을 미리 계산해 둠 => 하위 트리 조회는 메모리에서 바로 끝남
+ */
+public class CategoryTree {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final Map<Long, String> names;
+    private final Map<Long, long[]> children;
+    private final Map<Long, long[]> descendants; // 자기 자신 포함
+    private final Map<Long, long[]> ancestors;   // 가까운 부모부터 루트까지
+    private final long[] roots;
+
+    /**
+     * @param rows (id, parentId, name) 목록, 루트는 parentId가 null
+     */
+    public static CategoryTree build(List<Object[]> rows) {
+        Map<Long, String> names = new HashMap<>();
+        Map<Long, Long> parents = new HashMap<>();
+        Map<Long, List<Long>> childLists = new HashMap<>();
+        for (Object[] row : rows) {
+            Long id = (Long) row[0];
+            Long parentId = (Long) row[1];
+            names.put(id, (String) row[2]);
+            if (parentId != null) {
+                parents.put(id, parentId);
+                childLists.computeIfAbsent(parentId, k -> new ArrayList<>()).add(id);
+            }
+        }
+
+        Map<Long, long[]> children = new HashMap<>();
+        childLists.forEach((id, list) -> children.put(id, toArray(list)));
+
+        List<Long> rootList = new ArrayList<>();
+        for (Long id : names.keySet()) {
+            if (!parents.containsKey(id) || !names.containsKey(parents.get(id))) {
+                rootList.add(id);
+            }
+        }
+
+        Map<Long, long[]> ancestors = new HashMap<>();
+        for (Long id : names.keySet()) {
+            List<Long> path = new ArrayList<>();
+            Set<Long> visited = new HashSet<>(); // 잘못된 데이터로 순환이 생겨도 멈추도록
+            visited.add(id);
+            Long parent = parents.get(id);
+            while (parent != null && visited.add(parent)) {
+                path.add(parent);
+                parent = parents.get(parent);
+            }
+            ancestors.put(id, toArray(path));
+        }
+
+        Map<Long, long[]> descendants = new HashMap<>();
+        for (Long id : names.keySet()) {
+            List<Long> subtree = new ArrayList<>();
+            Deque<Long> stack = new ArrayDeque<>();
+            Set<Long> visited = new HashSet<>();
+            stack.push(id);
+            while (!stack.isEmpty()) {
+                Long current = stack.pop();
+                if (!visited.add(current)) {
+                    continue;
+                }
+                subtree.add(current);
+                for (long child : children.getOrDefault(current, EMPTY)) {
+                    stack.push(child);
+                }
+            }
+            descendants.put(id, toArray(subtree));
+        }
+
+        return new CategoryTree(names, children, descendants, ancestors, toArray(rootList));
+    }
+
+    private CategoryTree(Map<Long, String> names, Map<Long, long[]> children,
+                         Map<Long, long[]> descendants, Map<Long, long[]> ancestors, long[] roots) {
+        this.names = names;
+        this.children = children;
+        this.descendants = descendants;
+        this.ancestors = ancestors;
+        this.roots = roots;
+    }
+
+    public boolean contains(Long categoryId) {
+        return names.containsKey(categoryId);
+    }
+
+    public String nameOf(Long categoryId) {
+        return names.get(categoryId);
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    public List<Long> roots() {
+        return toList(roots);
+    }
+
+    public List<Long> childrenOf(Long categoryId) {
+        return toList(children.getOrDefault(categoryId, EMPTY));
+    }
+
+    // 자기 자신을 포함한 하위 트리 전체
+    public List<Long> descendantsOf(Long categoryId) {
+        return toList(descendants.getOrDefault(categoryId, EMPTY));
+    }
+
+    public List<Long> ancestorsOf(Long categoryId) {
+        return toList(ancestors.getOrDefault(categoryId, EMPTY));
+    }
+
+    private static long[] toArray(List<Long> list) {
+        long[] result = new long[list.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = list.get(i);
+        }
+        return result;
+    }
+
+    private static List<Long> toList(long[] array) {
+        List<Long> result = new ArrayList<>(array.length);
+        for (long value : array) {
+            result.add(value);
+        }
+        return result;
+    }
+}
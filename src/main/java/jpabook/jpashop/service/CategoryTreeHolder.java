@@ -0,0 +1,45 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.event.CategoryChangedEvent;
+import jpabook.jpashop.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+
+/**
+ * 카테고리 트리 스냅샷 보관
+ * 시작시 만들고, 카테고리 변경이 커밋되면 새 스냅샷으로 통째로 교체 (읽는 쪽은 락 없이 현재 스냅샷 사용)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryTreeHolder {
+
+    private final CategoryRepository categoryRepository;
+
+    private volatile CategoryTree tree = CategoryTree.build(Collections.emptyList());
+
+    public CategoryTree getTree() {
+        return tree;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        tree = CategoryTree.build(categoryRepository.findAllIdParentName());
+        log.info("category tree rebuilt. categories={}", tree.size());
+    }
+}
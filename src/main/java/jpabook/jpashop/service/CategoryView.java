@@ -0,0 +1,24 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Category;
+import lombok.Getter;
+
+/**
+ * 캐시/조회용 카테고리 값 (변경 불가)
+ * 상위/하위 카테고리와 상품은 CategoryTreeHolder, findItemsUnder로 조회
+ */
+@Getter
+public class CategoryView {
+
+    private final Long id;
+    private final String name;
+
+    public CategoryView(Long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public static CategoryView of(Category category) {
+        return new CategoryView(category.getId(), category.getName());
+    }
+}
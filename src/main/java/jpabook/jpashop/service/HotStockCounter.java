@@ -0,0 +1,371 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.repository.ItemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 인기 상품(hot SKU) 재고 카운터
+ *
+ * 같은 Item row에 주문이 몰리면 조건부 update라도 row 락 대기열이 길어짐
+ * 인기 상품은 DB 재고를 leaseSize 단위로 미리 떼어와(lease) 메모리의 스트라이프 카운터에 나눠 담고,
+ * 주문은 메모리 카운터에서 CAS로만 차감 => DB 왕복과 row 락 없음
+ *
+ * - lease는 조건부 update로 DB 재고를 먼저 차감하므로 메모리 재고의 합은 항상 실제 재고 이하 (초과 판매 없음)
+ * - 한 칸에 주문 수량만큼 없으면 여러 칸에서 모아서 차감 (칸마다 leaseSize / stripes 정도만 있으므로)
+ * - 메모리 재고가 부족하면 false를 반환하고 부족한 수량만큼은 다음 보충에서 가져옴
+ *   => 호출자는 awaitRefill로 진행 중인 lease가 메모리에 반영되기를 기다린 뒤 다시 차감
+ *   (lease 도중에는 DB에서 뺀 재고가 아직 메모리에 없으므로 바로 재고부족으로 처리하면 재고가 있는데도 덜 팔림)
+ * - 보충 요청은 상품마다 대기 중인 것 하나로 합쳐짐 (차감 실패가 몰려도 보충 작업이 쌓이지 않음)
+ * - 백그라운드 스레드가 주기적으로 재고를 보충하고, 너무 많이 쌓인 재고(취소분)는 DB로 반납
+ * - 종료시 남은 재고는 모두 DB로 반납
+ *
+ * lease된 재고는 DB의 stockQuantity에 포함되지 않음 (조회되는 재고 = DB 재고 + 메모리 재고)
+ * 프로세스가 비정상 종료되면 메모리 재고(상품당 최대 leaseSize * 2)는 DB로 돌아가지 못하고 사라짐
+ * => 초과 판매는 생기지 않지만 그만큼 덜 팔리므로, 재시작 후 저널(StockChangedEvent)과 주문 내역으로 재고를 맞춰야 함
+ */
+@Slf4j
+@Component
+public class HotStockCounter {
+
+    private final ItemRepository itemRepository;
+    private final ItemCacheEvictor itemCacheEvictor;
+    private final TransactionTemplate transactionTemplate;
+    private final int leaseSize;
+    private final int stripes;
+    private final long refillWaitNanos;
+
+    private final Map<Long, StripedStock> stocks = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "hot-stock-refresher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public HotStockCounter(ItemRepository itemRepository,
+                           ItemCacheEvictor itemCacheEvictor,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${jpashop.stock.hot-items:}") List<Long> hotItemIds,
+                           @Value("${jpashop.stock.lease-size:100}") int leaseSize,
+                           @Value("${jpashop.stock.stripes:0}") int stripes,
+                           @Value("${jpashop.stock.refresh-interval-ms:200}") long refreshIntervalMs,
+                           @Value("${jpashop.stock.refill-wait-ms:0}") long refillWaitMs) {
+        this.itemRepository = itemRepository;
+        this.itemCacheEvictor = itemCacheEvictor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.leaseSize = leaseSize;
+        this.stripes = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
+        this.refillWaitNanos = TimeUnit.MILLISECONDS.toNanos(refillWaitMs);
+
+        hotItemIds.forEach(this::markHot);
+        refresher.scheduleWithFixedDelay(this::refreshAll, refreshIntervalMs, refreshIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void markHot(Long itemId) {
+        stocks.computeIfAbsent(itemId, id -> new StripedStock(stripes));
+    }
+
+    public boolean isHot(Long itemId) {
+        return stocks.containsKey(itemId);
+    }
+
+    // 메모리 재고에서 차감, 부족하면 false (보충은 백그라운드에서 수행)
+    public boolean tryReserve(Long itemId, int quantity) {
+        StripedStock stock = stocks.get(itemId);
+        if (stock == null) {
+            return false;
+        }
+        if (stock.tryTake(quantity)) {
+            return true;
+        }
+        stock.wanted.accumulateAndGet(quantity, Math::max);
+        requestRefresh(itemId, stock);
+        return false;
+    }
+
+    /*
+        DB에서 이미 떼어낸 lease가 메모리에 반영될 때까지 기다렸다가 다시 차감, 실패하면 false
+        lease의 update가 성공한 뒤부터 메모리에 나눠 담을 때까지만 기다리므로 row 락을 기다리지 않음
+
+        refillWaitMs > 0이면 새 보충도 기다림 (기본은 0, 주문 트랜잭션이 커넥션을 쥔 채로 최대 refillWaitMs 대기)
+        보충이 들어왔는데 다른 주문이 먼저 가져갔으면 다음 보충을 다시 기다림
+        DB에 더 가져올 재고가 없거나 refillWaitMs가 지나면 false => 호출자는 DB 조건부 update로 처리
+        호출자가 이 상품의 row 락을 쥔 채로 기다리면 (DB 조건부 update 이후) lease의 update가 그 락을 기다리므로
+        보충 없이 refillWaitMs가 지나고 false
+     */
+    public boolean awaitRefill(Long itemId, int quantity) {
+        StripedStock stock = stocks.get(itemId);
+        if (stock == null) {
+            return false;
+        }
+        stock.awaitLeaseInFlight();
+        if (refillWaitNanos == 0) {
+            return stock.tryTake(quantity);
+        }
+        long deadline = System.nanoTime() + refillWaitNanos;
+        while (true) {
+            boolean refilled;
+            try {
+                refilled = requestRefresh(itemId, stock).get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException | ExecutionException e) {
+                return stock.tryTake(quantity);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            if (stock.tryTake(quantity)) {
+                return true;
+            }
+            if (!refilled || System.nanoTime() >= deadline) {
+                return false;
+            }
+        }
+    }
+
+    // 메모리 재고에서 최대 quantity만큼 차감하고 차감한 수량을 반환 (나머지는 호출자가 DB에서 차감)
+    public int reserveUpTo(Long itemId, int quantity) {
+        StripedStock stock = stocks.get(itemId);
+        return stock == null ? 0 : stock.drain(quantity);
+    }
+
+    public void release(Long itemId, int quantity) {
+        StripedStock stock = stocks.get(itemId);
+        if (stock == null) { // 그 사이 해제된 상품이면 DB로 반납
+            giveBack(itemId, quantity);
+            return;
+        }
+        stock.put(quantity);
+    }
+
+    public int available(Long itemId) {
+        StripedStock stock = stocks.get(itemId);
+        return stock == null ? 0 : stock.sum();
+    }
+
+    // 인기 상품 해제, 메모리에 남은 재고는 모두 DB로 반납
+    public synchronized void unmarkHot(Long itemId) {
+        StripedStock stock = stocks.remove(itemId);
+        if (stock != null) {
+            giveBack(itemId, stock.drain(Integer.MAX_VALUE));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdown();
+        stocks.keySet().forEach(this::unmarkHot);
+    }
+
+    private void refreshAll() {
+        stocks.forEach(this::refresh);
+    }
+
+    // 아직 시작하지 않은 보충 작업이 있으면 그 결과를, 없으면 새로 등록한 작업의 결과를 반환 (true: 메모리에 재고가 추가됨)
+    private CompletableFuture<Boolean> requestRefresh(Long itemId, StripedStock stock) {
+        while (true) {
+            CompletableFuture<Boolean> pending = stock.pendingRefresh.get();
+            if (pending != null) {
+                return pending;
+            }
+            CompletableFuture<Boolean> created = new CompletableFuture<>();
+            if (stock.pendingRefresh.compareAndSet(null, created)) {
+                try {
+                    refresher.execute(() -> refresh(itemId, stock));
+                } catch (RuntimeException e) { // 종료 중
+                    stock.pendingRefresh.compareAndSet(created, null);
+                    created.complete(false);
+                }
+                return created;
+            }
+        }
+    }
+
+    private synchronized void refresh(Long itemId, StripedStock stock) {
+        // 이 시점 이후의 보충 요청은 다음 작업으로 (이번 작업은 요청 이후에 시작했으므로 대기 중인 요청을 모두 처리함)
+        CompletableFuture<Boolean> requested = stock.pendingRefresh.getAndSet(null);
+        boolean refilled = false;
+        try {
+            if (stocks.get(itemId) != stock) { // 이미 해제된 상품
+                return;
+            }
+            int available = stock.sum();
+            int wanted = stock.wanted.getAndSet(0); // 메모리에서 차감하지 못한 주문 중 가장 큰 수량
+            if (available < Math.max(leaseSize / 2, wanted)) {
+                refilled = lease(itemId, stock, Math.max(leaseSize, wanted - available)) > 0;
+            } else if (available > leaseSize * 2) {
+                giveBack(itemId, stock.drain(available - leaseSize));
+            }
+        } catch (RuntimeException e) {
+            log.warn("hot stock refresh failed. itemId={}", itemId, e);
+        } finally {
+            if (requested != null) {
+                requested.complete(refilled);
+            }
+        }
+    }
+
+    /*
+        DB 재고를 최대 quantity만큼 차감해 메모리에 나눠 담고 실제로 가져온 수량을 반환 (DB 재고가 바뀌면 상품 캐시도 비움)
+        update가 성공한 순간부터 메모리에 담을 때까지 진행 중으로 표시 (awaitRefill이 이 사이의 재고를 놓치지 않도록)
+     */
+    private int lease(Long itemId, StripedStock stock, int quantity) {
+        AtomicBoolean inFlight = new AtomicBoolean();
+        try {
+            Integer leased = transactionTemplate.execute(status -> {
+                int taken = removeUpTo(itemId, quantity);
+                if (taken > 0 && inFlight.compareAndSet(false, true)) {
+                    stock.leasing.incrementAndGet();
+                }
+                return taken;
+            });
+            if (leased == null || leased == 0) {
+                return 0;
+            }
+            stock.spread(leased);
+            itemCacheEvictor.evict(itemId);
+            return leased;
+        } finally {
+            if (inFlight.get()) {
+                stock.leasing.decrementAndGet();
+            }
+        }
+    }
+
+    private int removeUpTo(Long itemId, int quantity) {
+        if (itemRepository.removeStock(itemId, quantity) == 1) {
+            return quantity;
+        }
+        int remain = itemRepository.findStockQuantity(itemId);
+        if (remain > 0 && itemRepository.removeStock(itemId, remain) == 1) {
+            return remain;
+        }
+        return 0;
+    }
+
+    private void giveBack(Long itemId, int quantity) {
+        if (quantity > 0) {
+            transactionTemplate.executeWithoutResult(status -> itemRepository.addStock(itemId, quantity));
+            itemCacheEvictor.evict(itemId);
+        }
+    }
+
+    /**
+     * 스트라이프 카운터
+     * 스레드마다 다른 칸에서 CAS를 시도하여 하나의 카운터에 경합이 몰리지 않도록 함
+     * 칸 사이를 PADDING만큼 띄워서 false sharing 방지
+     *
+     * 한 칸에서 차감하지 못하면 여러 칸에서 모아서 차감 (모으는 쪽은 하나씩만 실행)
+     * => 모으다가 부족해서 되돌려 놓는 동안 다른 주문이 재고가 없다고 판단하지 않도록, 한 칸에서 실패한 주문도 같은 순서를 기다림
+     */
+    static class StripedStock {
+
+        private static final int PADDING = 16;
+        private static final long LEASE_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+        private final int size;
+        private final AtomicIntegerArray cells;
+        private final AtomicReference<CompletableFuture<Boolean>> pendingRefresh = new AtomicReference<>();
+        private final AtomicInteger wanted = new AtomicInteger();
+        private final AtomicInteger leasing = new AtomicInteger();
+
+        StripedStock(int size) {
+            this.size = size;
+            this.cells = new AtomicIntegerArray(size * PADDING);
+        }
+
+        boolean tryTake(int quantity) {
+            int start = index();
+            for (int i = 0; i < size; i++) {
+                int cell = ((start + i) % size) * PADDING;
+                int value;
+                while ((value = cells.get(cell)) >= quantity) {
+                    if (cells.compareAndSet(cell, value, value - quantity)) {
+                        return true;
+                    }
+                }
+            }
+            return collect(quantity);
+        }
+
+        // 여러 칸에서 quantity만큼 모아서 차감, 모자라면 모은 만큼 되돌려 놓고 false
+        private synchronized boolean collect(int quantity) {
+            if (sum() < quantity) {
+                return false;
+            }
+            int taken = drain(quantity);
+            if (taken < quantity) {
+                put(taken);
+                return false;
+            }
+            return true;
+        }
+
+        // DB에서 떼어낸 lease가 메모리에 담길 때까지 대기 (update 이후 커밋/분배까지의 짧은 구간)
+        void awaitLeaseInFlight() {
+            while (leasing.get() > 0 && !Thread.currentThread().isInterrupted()) {
+                LockSupport.parkNanos(LEASE_WAIT_NANOS);
+            }
+        }
+
+        void put(int quantity) {
+            cells.getAndAdd(index() * PADDING, quantity);
+        }
+
+        void spread(int quantity) {
+            int share = quantity / size;
+            for (int i = 0; i < size; i++) {
+                cells.getAndAdd(i * PADDING, share);
+            }
+            cells.getAndAdd(0, quantity - share * size);
+        }
+
+        synchronized int drain(int max) {
+            int taken = 0;
+            for (int i = 0; i < size && taken < max; i++) {
+                int cell = i * PADDING;
+                int value;
+                while ((value = cells.get(cell)) > 0) {
+                    int take = Math.min(value, max - taken);
+                    if (cells.compareAndSet(cell, value, value - take)) {
+                        taken += take;
+                        break;
+                    }
+                }
+            }
+            return taken;
+        }
+
+        int sum() {
+            int sum = 0;
+            for (int i = 0; i < size; i++) {
+                sum += cells.get(i * PADDING);
+            }
+            return sum;
+        }
+
+        private int index() {
+            return (int) (Thread.currentThread().getId() % size);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package jpabook.jpashop.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jpabook.jpashop.domain.OrderRequestKey;
+import jpabook.jpashop.exception.IdempotencyKeyMismatchException;
+import jpabook.jpashop.repository.OrderRequestKeyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * 요청 키(멱등성 키)로 중복 주문 방지
+ * 클라이언트가 타임아웃 후 같은 요청을 재시도해도 주문/재고 차감은 한 번만 일어나고 원래 주문 id를 돌려줌
+ *
+ * 1. 최근 키 캐시(Caffeine): 이미 처리한 키면 DB 조회 없이 바로 원래 주문 id
+ * 2. 처리 중인 키(ConcurrentHashMap.putIfAbsent): 같은 노드에서 동시에 들어온 같은 키는 먼저 온 요청의 결과를 기다림
+ * 3. order_request_key 테이블: 키를 주문과 같은 트랜잭션에서 insert, 기본키 중복이면 주문이 롤백되고 저장된 주문 id를 조회
+ *
+ * 처음 쓰는 키는 락 없이 1, 2를 지나 키 insert 한 번만 추가됨 (키가 있는지 먼저 조회하지 않음)
+ * 캐시에서 밀려났거나 다른 노드에서 처리된 키는 주문을 실행했다가 3에서 롤백됨 => 중복 주문은 생기지 않음
+ * 키가 없는 요청은 그대로 주문
+ *
+ * 키는 전역이므로 요청 내용(회원 id, 상품 id/수량)의 해시를 키와 함께 기억하고 1, 2, 3 모두에서 비교
+ * 같은 키로 다른 회원/다른 내용의 요청이 오면 원래 주문 id를 돌려주지 않고 IdempotencyKeyMismatchException(422)
+ */
+@Slf4j
+@Service
+public class IdempotentOrderService {
+
+    private final OrderService orderService;
+    private final OrderRequestKeyRepository orderRequestKeyRepository;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, Processed> recentKeys;
+    private final ConcurrentMap<String, Flight> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotentOrderService(OrderService orderService,
+                                  OrderRequestKeyRepository orderRequestKeyRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${jpashop.idempotency.cache-size:100000}") long cacheSize,
+                                  @Value("${jpashop.idempotency.cache-ttl-minutes:1440}") long cacheTtlMinutes) {
+        this.orderService = orderService;
+        this.orderRequestKeyRepository = orderRequestKeyRepository;
+        this.meterRegistry = meterRegistry;
+        this.recentKeys = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofMinutes(cacheTtlMinutes))
+                .build();
+    }
+
+    public Long order(String requestKey, Long memberId, Long itemId, int count) {
+        if (!StringUtils.hasText(requestKey)) {
+            return orderService.order(memberId, itemId, count);
+        }
+        String payloadHash = payloadHash(memberId, List.of(new OrderLine(itemId, count)));
+        return once(requestKey, payloadHash, () -> orderService.order(requestKey, payloadHash, memberId, itemId, count));
+    }
+
+    public Long placeOrder(String requestKey, Long memberId, List<OrderLine> lines) {
+        if (!StringUtils.hasText(requestKey)) {
+            return orderService.placeOrder(memberId, lines);
+        }
+        String payloadHash = payloadHash(memberId, lines);
+        return once(requestKey, payloadHash, () -> orderService.placeOrder(requestKey, payloadHash, memberId, lines));
+    }
+
+    private Long once(String requestKey, String payloadHash, Supplier<Long> placeOrder) {
+        if (requestKey.length() > OrderRequestKey.MAX_LENGTH) {
+            throw new IllegalArgumentException("요청 키는 " + OrderRequestKey.MAX_LENGTH + "자 이하여야 합니다.");
+        }
+
+        Processed cached = recentKeys.getIfPresent(requestKey);
+        if (cached != null) {
+            checkSamePayload(requestKey, cached.payloadHash, payloadHash);
+            return replayed("cache", cached.orderId);
+        }
+
+        Flight mine = new Flight(payloadHash);
+        Flight running = inFlight.putIfAbsent(requestKey, mine);
+        if (running != null) {
+            checkSamePayload(requestKey, running.payloadHash, payloadHash);
+            return replayed("in-flight", await(running.future));
+        }
+
+        try {
+            Long orderId;
+            try {
+                orderId = placeOrder.get();
+            } catch (DataIntegrityViolationException e) {
+                OrderRequestKey stored = orderRequestKeyRepository.findOne(requestKey);
+                if (stored == null) {
+                    // 다른 노드에서 같은 키를 아직 처리 중이거나, 키가 아닌 다른 제약조건 위반
+                    throw e;
+                }
+                checkSamePayload(requestKey, stored.getPayloadHash(), payloadHash);
+                orderId = replayed("table", stored.getOrderId());
+            }
+            recentKeys.put(requestKey, new Processed(orderId, payloadHash));
+            mine.future.complete(orderId);
+            return orderId;
+        } catch (RuntimeException e) {
+            mine.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(requestKey, mine);
+        }
+    }
+
+    private void checkSamePayload(String requestKey, String stored, String requested) {
+        if (!requested.equals(stored)) {
+            meterRegistry.counter("jpashop.idempotency.mismatches").increment();
+            throw new IdempotencyKeyMismatchException("이미 다른 주문 요청에 사용된 요청 키입니다. key=" + requestKey);
+        }
+    }
+
+    /**
+     * 회원 id와 주문 상품(상품 id 순으로 정렬한 상품 id, 수량)의 SHA-256 (hex 64자)
+     */
+    static String payloadHash(Long memberId, List<OrderLine> lines) {
+        StringBuilder payload = new StringBuilder().append(memberId);
+        lines.stream()
+                .sorted(Comparator.comparing(OrderLine::getItemId, Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparingInt(OrderLine::getCount))
+                .forEach(line -> payload.append('|').append(line.getItemId()).append(':').append(line.getCount()));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(payload.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // 모든 JDK에 있음
+        }
+    }
+
+    private Long replayed(String source, Long orderId) {
+        meterRegistry.counter("jpashop.idempotency.replays", "source", source).increment();
+        log.debug("duplicate order request. source={}, orderId={}", source, orderId);
+        return orderId;
+    }
+
+    private static Long await(CompletableFuture<Long> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static class Processed {
+        private final Long orderId;
+        private final String payloadHash;
+
+        Processed(Long orderId, String payloadHash) {
+            this.orderId = orderId;
+            this.payloadHash = payloadHash;
+        }
+    }
+
+    private static class Flight {
+        private final String payloadHash;
+        private final CompletableFuture<Long> future = new CompletableFuture<>();
+
+        Flight(String payloadHash) {
+            this.payloadHash = payloadHash;
+        }
+    }
+
+    // 테스트용: 캐시에서 밀려난 키(테이블로만 중복 확인) 상황 재현
+    void forget(String requestKey) {
+        recentKeys.invalidate(requestKey);
+    }
+}
@@ -0,0 +1,42 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.config.CacheConfig;
+import jpabook.jpashop.domain.event.StockChangedEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 재고 변경에 따른 상품 캐시 무효화
+ *
+ * 재고는 @CacheEvict가 붙은 수정 메서드가 아닌 조건부 update(StockService)나 HotStockCounter의 lease/반납으로도 바뀜
+ * => 재고 변경이 커밋된 뒤 해당 상품(ITEM)과 상품 목록(ITEMS)을 바로 비움
+ * 인기 상품의 메모리 재고 차감은 DB의 stockQuantity를 바꾸지 않지만 StockChangedEvent로 함께 비워짐
+ */
+@Component
+public class ItemCacheEvictor {
+
+    private final Cache itemCache;
+    private final Cache itemsCache;
+
+    public ItemCacheEvictor(CacheManager cacheManager) {
+        this.itemCache = cacheManager.getCache(CacheConfig.ITEM);
+        this.itemsCache = cacheManager.getCache(CacheConfig.ITEMS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        evict(event.getItemId());
+    }
+
+    // 커밋 후(또는 트랜잭션 밖)에 호출, 트랜잭션 동기화를 거치지 않고 바로 비움
+    public void evict(Long itemId) {
+        if (itemCache != null) {
+            itemCache.evictIfPresent(itemId);
+        }
+        if (itemsCache != null) {
+            itemsCache.invalidate();
+        }
+    }
+}
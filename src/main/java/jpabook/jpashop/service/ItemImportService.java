@@ -0,0 +1,225 @@
+package jpabook.jpashop.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jpabook.jpashop.config.CacheConfig;
+import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.importer.ItemImportFormat;
+import jpabook.jpashop.importer.ItemImportResult;
+import jpabook.jpashop.importer.ItemImportRow;
+import jpabook.jpashop.repository.ItemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * 상품 카탈로그 일괄 등록 (CSV/JSON, 수십만 건)
+ *
+ * - 파싱: 별도 스레드가 파일을 한 행씩 읽고 검증해 batchSize 단위 청크로 큐에 넣음
+ * - 저장: 호출 스레드가 청크마다 트랜잭션 하나로 insert/update 후 flush/clear
+ *   => 메모리에는 큐 크기만큼의 청크만 올라가고, insert는 hibernate.jdbc.batch_size 단위로 묶여 전송됨
+ * - id가 있는 행은 청크 단위 in쿼리로 기존 상품을 조회해 수정 (행마다 merge하지 않음)
+ *   재고는 StockService로 현재 재고와의 차이만큼 반영 (인기 상품 메모리 재고, StockChangedEvent 포함)
+ *   재고가 바뀌는 행은 조건부 update가 한 번씩 더 실행되므로 batch로 묶이지 않음
+ * - 없는 id는 실패 처리 (upsert의 insert 쪽은 id가 없는 행만)
+ *   id는 PrefetchingPooledLoGenerator가 구간 단위로 나눠주므로 파일의 id로 insert하면 이후 발급될 id와 충돌함
+ * - 청크 저장이 실패하면 그 청크만 한 건씩 다시 저장해 실패 행을 골라냄 (이미 커밋된 청크는 유지)
+ */
+@Slf4j
+@Service
+public class ItemImportService {
+
+    private static final Chunk END = new Chunk();
+
+    private final ItemRepository itemRepository;
+    private final StockService stockService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final CsvMapper csvMapper = new CsvMapper().enable(CsvParser.Feature.SKIP_EMPTY_LINES);
+    private final int batchSize;
+    private final int queueCapacity;
+    private final int maxReportedFailures;
+
+    public ItemImportService(ItemRepository itemRepository,
+                             StockService stockService,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${jpashop.import.batch-size:1000}") int batchSize,
+                             @Value("${jpashop.import.queue-capacity:4}") int queueCapacity,
+                             @Value("${jpashop.import.max-reported-failures:1000}") int maxReportedFailures) {
+        this.itemRepository = itemRepository;
+        this.stockService = stockService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        this.maxReportedFailures = maxReportedFailures;
+    }
+
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.ITEM, allEntries = true),
+            @CacheEvict(value = CacheConfig.ITEMS, allEntries = true)
+    })
+    public ItemImportResult importItems(InputStream in, ItemImportFormat format) {
+        ItemImportResult result = new ItemImportResult(maxReportedFailures);
+        BlockingQueue<Chunk> queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        Thread parser = new Thread(() -> parse(in, format, queue), "item-import-parser");
+        parser.setDaemon(true);
+        parser.start();
+        try {
+            for (Chunk chunk = queue.take(); chunk != END; chunk = queue.take()) {
+                chunk.failures.forEach(result::addFailure);
+                write(chunk.rows, result);
+                log.info("상품 import 진행: {}건 (등록 {}, 수정 {}, 실패 {})",
+                        result.getProcessed(), result.getInserted(), result.getUpdated(), result.getFailed());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("상품 import 중단", e);
+        } finally {
+            parser.interrupt(); // 저장 중 예외로 끝난 경우 큐에서 대기 중인 파싱 스레드 종료
+        }
+        return result;
+    }
+
+    private void parse(InputStream in, ItemImportFormat format, BlockingQueue<Chunk> queue) {
+        Chunk chunk = new Chunk();
+        long rowNumber = 0;
+        try (MappingIterator<Map<String, Object>> records = open(in, format)) {
+            while (records.hasNextValue()) {
+                rowNumber++;
+                try {
+                    chunk.rows.add(ItemImportRow.of(rowNumber, toText(records.nextValue())));
+                } catch (JsonProcessingException e) {
+                    chunk.failures.add(new ItemImportResult.Failure(rowNumber, e.getOriginalMessage()));
+                } catch (IllegalArgumentException e) {
+                    chunk.failures.add(new ItemImportResult.Failure(rowNumber, e.getMessage()));
+                }
+
+                if (chunk.size() >= batchSize) {
+                    queue.put(chunk);
+                    chunk = new Chunk();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // 형식이 깨져 다음 행을 찾을 수 없음 => 여기까지만 등록
+            chunk.failures.add(new ItemImportResult.Failure(rowNumber + 1, "파일 읽기 중단: " + e.getMessage()));
+        } catch (InterruptedException e) {
+            return;
+        }
+
+        try {
+            queue.put(chunk);
+            queue.put(END);
+        } catch (InterruptedException ignored) {
+        }
+    }
+
+    private MappingIterator<Map<String, Object>> open(InputStream in, ItemImportFormat format) throws IOException {
+        ObjectReader reader = format == ItemImportFormat.CSV
+                ? csvMapper.readerFor(Map.class).with(CsvSchema.emptySchema().withHeader())
+                : objectMapper.readerFor(Map.class); // 최상위 배열이면 원소 단위로 읽음
+        return reader.readValues(in);
+    }
+
+    private static Map<String, String> toText(Map<String, Object> record) {
+        Map<String, String> values = new HashMap<>();
+        record.forEach((column, value) -> values.put(column, value == null ? null : String.valueOf(value)));
+        return values;
+    }
+
+    private void write(List<ItemImportRow> rows, ItemImportResult result) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            result.merge(transactionTemplate.execute(status -> upsert(rows)));
+        } catch (RuntimeException e) {
+            log.warn("상품 import 청크 저장 실패, 한 건씩 다시 저장: {}", e.getMessage());
+            for (ItemImportRow row : rows) {
+                try {
+                    result.merge(transactionTemplate.execute(status -> upsert(List.of(row))));
+                } catch (RuntimeException rowError) {
+                    result.addFailure(row.getRowNumber(), rootMessage(rowError));
+                }
+            }
+        }
+    }
+
+    private ItemImportResult upsert(List<ItemImportRow> rows) {
+        ItemImportResult chunkResult = new ItemImportResult(maxReportedFailures);
+
+        List<Long> ids = rows.stream()
+                .map(ItemImportRow::getId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(toList());
+        Map<Long, Item> existing = ids.isEmpty() ? Map.of() : itemRepository.findAllById(ids).stream()
+                .collect(toMap(Item::getId, Function.identity()));
+
+        for (ItemImportRow row : rows) {
+            if (row.getId() == null) {
+                itemRepository.save(row.newItem());
+                chunkResult.addInserted();
+                continue;
+            }
+
+            Item item = existing.get(row.getId());
+            if (item == null) {
+                chunkResult.addFailure(row.getRowNumber(), "존재하지 않는 상품 id (신규 등록은 id 없이): " + row.getId());
+            } else if (!row.matches(item)) {
+                chunkResult.addFailure(row.getRowNumber(), "상품 종류(dtype) 불일치: " + row.getDtype());
+            } else {
+                stockService.adjustTo(item, row.getStockQuantity()); // 재고부족이면 청크를 한 건씩 다시 저장하며 실패 처리
+                row.applyTo(item); // 변경감지로 update
+                chunkResult.addUpdated();
+            }
+        }
+
+        itemRepository.flushAndClear();
+        return chunkResult;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    private static class Chunk {
+        private final List<ItemImportRow> rows = new ArrayList<>();
+        private final List<ItemImportResult.Failure> failures = new ArrayList<>();
+
+        int size() {
+            return rows.size() + failures.size();
+        }
+    }
+}
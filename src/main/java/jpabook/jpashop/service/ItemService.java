@@ -1,46 +1,99 @@
 package jpabook.jpashop.service;
 
+import jpabook.jpashop.concurrent.Coalesced;
+import jpabook.jpashop.config.CacheConfig;
 import jpabook.jpashop.controller.BookForm;
 import jpabook.jpashop.domain.item.Book;
 import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.exception.ItemVersionConflictException;
 import jpabook.jpashop.repository.ItemRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class ItemService {
 
+    private static final String CONFLICT_MESSAGE = "다른 곳에서 먼저 변경된 상품입니다. 다시 조회 후 수정해 주세요.";
+
     private final ItemRepository itemRepository;
+    private final StockService stockService;
 
+    // 수정(merge)일 수도 있으므로 해당 상품 캐시도 비움 (커밋 후)
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.ITEM, key = "#item.id", condition = "#item.id != null"),
+            @CacheEvict(value = CacheConfig.ITEMS, allEntries = true)
+    })
     public void saveItem(Item item) {
         itemRepository.save(item);
     }
 
-    public Item findItem(Long id) {
+    /*
+        캐시와 @Coalesced는 같은 결과 객체를 여러 스레드에 그대로 넘겨주므로 엔티티가 아닌 변경 불가능한 ItemView를 반환
+        => 한 요청에서 값을 바꾸거나 지연로딩을 건드려도 다른 요청이 받은 값에 영향이 없음
+     */
+    @Coalesced // 캐시가 비어 있을 때 같은 상품 조회가 몰려도 DB 조회는 한 번
+    @Cacheable(value = CacheConfig.ITEM, unless = "#result == null")
+    public ItemView findItem(Long id) {
+        Item item = itemRepository.findOne(id);
+        return item == null ? null : ItemView.of(item);
+    }
+
+    // 수정 화면용, 캐시된 값은 버전이 오래되었을 수 있으므로 DB에서 엔티티로 조회
+    public Item findItemForEdit(Long id) {
         return itemRepository.findOne(id);
     }
 
-    public List<Item> findItems() {
-        return itemRepository.findAll();
+    @Cacheable(CacheConfig.ITEMS)
+    public List<ItemView> findItems() {
+        return itemRepository.findAll().stream()
+                .map(ItemView::of)
+                .collect(Collectors.toUnmodifiableList());
     }
 
     /**
      * 변경시 각 필드의 세터로 하나하나 접근하는 것은 좋은 방법이 아님.
      * 엔티티 클래스에 변경에 대한 메서드를 정의하여 변경 지점을 엔티티로 하는 것이 좋음.
      * findItem.changeItem(bookForm.getName, bookFOrm.getIsbn... );
+     *
+     * 수정 화면을 연 뒤 다른 수정이 있었으면 덮어쓰지 않고 ItemVersionConflictException (재시도하지 않음, 다시 조회 후 수정)
+     * 재고는 화면을 연 시점의 재고(originalStockQuantity)와의 차이만큼만 StockService로 반영
+     * => 그 사이 주문으로 빠진 재고(인기 상품의 메모리 재고 포함)를 덮어쓰지 않음
      */
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.ITEM, key = "#id"),
+            @CacheEvict(value = CacheConfig.ITEMS, allEntries = true)
+    })
     public void updateItem(Long id, BookForm bookForm) {
+        if (bookForm.getVersion() == null || bookForm.getOriginalStockQuantity() == null) {
+            throw new IllegalArgumentException("수정 화면을 연 시점의 버전과 재고가 필요합니다. id=" + id);
+        }
         Book findItem = (Book) itemRepository.findOne(id);
+        if (findItem == null) {
+            throw new IllegalArgumentException("존재하지 않는 상품입니다. id=" + id);
+        }
+        if (!bookForm.getVersion().equals(findItem.getVersion())) {
+            throw new ItemVersionConflictException(CONFLICT_MESSAGE);
+        }
         findItem.setName(bookForm.getName());
         findItem.setIsbn(bookForm.getIsbn());
         findItem.setPrice(bookForm.getPrice());
-        findItem.setStockQuantity(bookForm.getStockQuantity());
+        try {
+            itemRepository.flush(); // 재고 update(버전 증가)보다 먼저 버전 검사
+        } catch (OptimisticLockingFailureException e) {
+            throw new ItemVersionConflictException(CONFLICT_MESSAGE, e);
+        }
+        stockService.adjust(findItem, bookForm.getStockQuantity() - bookForm.getOriginalStockQuantity());
     }
 }
@@ -0,0 +1,30 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.item.Item;
+import lombok.Getter;
+
+/**
+ * 캐시/조회용 상품 값 (변경 불가)
+ * 캐시된 값은 여러 스레드가 함께 읽으므로 엔티티 대신 조회 시점의 값만 복사해서 보관
+ */
+@Getter
+public class ItemView {
+
+    private final Long id;
+    private final String name;
+    private final int price;
+    private final int stockQuantity;
+    private final Long version;
+
+    public ItemView(Long id, String name, int price, int stockQuantity, Long version) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.stockQuantity = stockQuantity;
+        this.version = version;
+    }
+
+    public static ItemView of(Item item) {
+        return new ItemView(item.getId(), item.getName(), item.getPrice(), item.getStockQuantity(), item.getVersion());
+    }
+}
@@ -0,0 +1,75 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.event.MemberJoinedEvent;
+import jpabook.jpashop.repository.MemberRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 회원 수 추정값
+ *
+ * 목록 API마다 count(*)를 실행하지 않도록 마지막 집계값을 메모리에 둠
+ * - 회원가입이 커밋되면 1 증가
+ * - refreshSeconds가 지나면 다음 조회 때 백그라운드에서 count(*)로 다시 맞춤 (그동안은 이전 값 반환)
+ * - 첫 조회만 count(*)를 기다림
+ */
+@Slf4j
+@Component
+public class MemberCountEstimate {
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long refreshNanos;
+
+    private final AtomicLong count = new AtomicLong(-1);
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile long refreshedAt;
+
+    public MemberCountEstimate(MemberRepository memberRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${jpashop.member.count-refresh-seconds:60}") long refreshSeconds) {
+        this.memberRepository = memberRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.refreshNanos = TimeUnit.SECONDS.toNanos(refreshSeconds);
+    }
+
+    public long get() {
+        if (count.get() < 0) {
+            synchronized (this) {
+                if (count.get() < 0) {
+                    refresh();
+                }
+            }
+        } else if (System.nanoTime() - refreshedAt > refreshNanos && refreshing.compareAndSet(false, true)) {
+            CompletableFuture.runAsync(this::refresh)
+                    .whenComplete((result, e) -> {
+                        refreshing.set(false);
+                        if (e != null) {
+                            log.warn("member count refresh failed", e);
+                        }
+                    });
+        }
+        return count.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMemberJoined(MemberJoinedEvent event) {
+        count.updateAndGet(c -> c < 0 ? c : c + 1); // 아직 집계 전이면 첫 조회에서 집계
+    }
+
+    private void refresh() {
+        Long counted = readOnlyTransaction.execute(status -> memberRepository.count());
+        count.set(counted);
+        refreshedAt = System.nanoTime();
+    }
+}
@@ -0,0 +1,77 @@
+package jpabook.jpashop.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jpabook.jpashop.repository.MemberRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * 회원 목록 JSON 스트리밍 (키셋 페이징)
+ * { "data": [{"id", "name"}...], "count": 페이지 건수, "next": 다음 커서 또는 null, "totalEstimate": 전체 회원 수 추정값(요청시) }
+ * (id, name) 스칼라 조회 row를 JsonGenerator로 바로 씀 => 엔티티, DTO 목록을 만들지 않음
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class MemberJsonStreamService {
+
+    public static final int MAX_LIMIT = 1000;
+
+    private final MemberRepository memberRepository;
+    private final MemberCountEstimate memberCountEstimate;
+    private final ObjectMapper objectMapper;
+
+    // limit은 호출자(MemberApiController)가 1~MAX_LIMIT로 맞춰서 넘김
+    public void writeMembers(Long afterId, int limit, boolean withCount, OutputStream out) throws IOException {
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit은 1~" + MAX_LIMIT + " 사이여야 합니다.");
+        }
+
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gen.writeStartObject();
+            gen.writeArrayFieldStart("data");
+
+            // 다음 페이지가 있는지 알기 위해 한 건 더 조회 (마지막 한 건은 쓰지 않음)
+            int[] written = {0};
+            Long[] lastId = {null};
+            boolean[] hasNext = {false};
+            memberRepository.streamIdAndName(afterId, limit + 1, row -> {
+                if (written[0] == limit) {
+                    hasNext[0] = true;
+                    return;
+                }
+                try {
+                    gen.writeStartObject();
+                    gen.writeNumberField("id", (Long) row[0]);
+                    gen.writeStringField("name", (String) row[1]);
+                    gen.writeEndObject();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                lastId[0] = (Long) row[0];
+                written[0]++;
+            });
+
+            gen.writeEndArray();
+            gen.writeNumberField("count", written[0]);
+            if (hasNext[0]) {
+                gen.writeNumberField("next", lastId[0]); // 다른 목록 API와 같이 숫자 커서
+            } else {
+                gen.writeNullField("next");
+            }
+            if (withCount) {
+                gen.writeNumberField("totalEstimate", memberCountEstimate.get());
+            }
+            gen.writeEndObject();
+        }
+        out.flush();
+    }
+}
@@ -1,52 +1,104 @@
 package jpabook.jpashop.service;
 
+import jpabook.jpashop.config.CacheConfig;
 import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.event.MemberJoinedEvent;
+import jpabook.jpashop.domain.event.MemberNameChangedEvent;
+import jpabook.jpashop.exception.DuplicateMemberException;
 import jpabook.jpashop.repository.MemberRepository;
+import jpabook.jpashop.search.MemberNameFilter;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class MemberService {
 
+    private static final String NAME_CONSTRAINT = "uk_member_name";
+
     private final MemberRepository memberRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MemberNameFilter memberNameFilter;
 
     // 회원가입
     @Transactional
+    @CacheEvict(value = CacheConfig.MEMBERS, allEntries = true)
     public Long join(Member member) {
         validateDuplicateMember(member);
         memberRepository.save(member);
+        flushName();
+        eventPublisher.publishEvent(new MemberJoinedEvent(member.getId(), member.getName()));
         return member.getId();
     }
 
     // 중복회원검증
     private void validateDuplicateMember(Member member) {
-        // 멀티 스레드 환경 등에서 동시에 join을 호출한다면 중복된 이름이더라도 통과느 경우가 생길 수 있음
-        // 2차적으로 DB에서 Unique설정을 통해 중복을 막을 것.
-        List<Member> findMembers = memberRepository.findByName(member.getName());
-        if(!findMembers.isEmpty()){
-            throw new IllegalStateException("이미 존재하는 회원입니다.");
+        // 이름 필터가 확실히 없다고 하면 쿼리 생략 (대부분의 신규 가입)
+        // 멀티 스레드 환경 등에서 동시에 join을 호출한다면 중복된 이름이더라도 통과하는 경우가 생길 수 있음
+        // => 2차적으로 DB의 Unique 제약조건(uk_member_name)으로 막음 (flushName)
+        if (memberNameFilter.mightContain(member.getName()) && memberRepository.existsByName(member.getName())) {
+            throw new DuplicateMemberException("이미 존재하는 회원입니다.");
+        }
+    }
+
+    // insert/update를 바로 실행해 이름 제약조건 위반을 도메인 예외로 변환
+    private void flushName() {
+        try {
+            memberRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (isNameConstraint(e)) {
+                throw new DuplicateMemberException("이미 존재하는 회원입니다.", e);
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isNameConstraint(DataIntegrityViolationException e) {
+        if (!(e.getCause() instanceof ConstraintViolationException)) {
+            return false;
         }
+        String constraintName = ((ConstraintViolationException) e.getCause()).getConstraintName();
+        return constraintName != null && constraintName.toLowerCase(Locale.ROOT).contains(NAME_CONSTRAINT);
     }
 
-    // 회원 전체 조회
-    public List<Member> findMembers() {
-        return memberRepository.findAll();
+    // 회원 전체 조회 (캐시된 목록은 여러 요청이 공유하므로 변경 불가능한 MemberView 목록)
+    @Cacheable(CacheConfig.MEMBERS)
+    public List<MemberView> findMembers() {
+        return memberRepository.findAll().stream()
+                .map(MemberView::of)
+                .collect(Collectors.toUnmodifiableList());
     }
 
     // 회원 단건 조회
-    public Member findOne(Long id) {
-        return memberRepository.findOne(id);
+    @Cacheable(value = CacheConfig.MEMBER, unless = "#result == null")
+    public MemberView findOne(Long id) {
+        Member member = memberRepository.findOne(id);
+        return member == null ? null : MemberView.of(member);
     }
 
     // 회원 수정
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.MEMBER, key = "#id"),
+            @CacheEvict(value = CacheConfig.MEMBERS, allEntries = true)
+    })
     public void updateMember(Long id, String name) {
         Member findMember = memberRepository.findOne(id);
+        String oldName = findMember.getName();
         findMember.setName(name);
+        flushName();
+        eventPublisher.publishEvent(new MemberNameChangedEvent(id, oldName, name));
     }
 }
@@ -0,0 +1,27 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Member;
+import lombok.Getter;
+
+/**
+ * 캐시/조회용 회원 값 (변경 불가, Address도 값 타입이라 세터가 없음)
+ * 주문 목록 같은 연관관계는 담지 않음 => 캐시된 값에서 지연로딩이 일어나지 않음
+ */
+@Getter
+public class MemberView {
+
+    private final Long id;
+    private final String name;
+    private final Address address;
+
+    public MemberView(Long id, String name, Address address) {
+        this.id = id;
+        this.name = name;
+        this.address = address;
+    }
+
+    public static MemberView of(Member member) {
+        return new MemberView(member.getId(), member.getName(), member.getAddress());
+    }
+}
@@ -0,0 +1,48 @@
+package jpabook.jpashop.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * 전체 주문 NDJSON(한 줄에 주문 하나) export
+ * 주문 목록을 메모리에 올리지 않고 DB 커서에서 읽는 대로 바로 출력 스트림에 씀
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class OrderExportService {
+
+    private final OrderQueryRepository orderQueryRepository;
+    private final ObjectMapper objectMapper;
+
+    // MySQL은 Integer.MIN_VALUE여야 한 row씩 스트리밍 (그 외 값이면 드라이버가 전체 결과를 메모리에 올림, streamAllRows 참고)
+    @Value("${jpashop.export.fetch-size:1000}")
+    private int fetchSize;
+
+    public void exportOrders(OutputStream out) throws IOException {
+        try (SequenceWriter writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(out)) {
+            orderQueryRepository.streamAllByDto(fetchSize, order -> {
+                try {
+                    writer.write(order);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        out.write('\n');
+        out.flush();
+    }
+}
@@ -0,0 +1,104 @@
+package jpabook.jpashop.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 주문 목록 JSON 스트리밍 (v5와 같은 응답 형식, 단 주문상품이 없는 주문의 orderItems는 null 대신 빈 배열)
+ * 스칼라 조회 row를 JsonGenerator로 바로 출력 스트림에 씀
+ * => DTO 목록, 리플렉션 기반 직렬화, Hibernate5Module 프록시 검사를 모두 거치지 않음
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class OrderJsonStreamService {
+
+    private final OrderQueryRepository orderQueryRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${jpashop.export.fetch-size:1000}")
+    private int fetchSize;
+
+    public void writeOrders(OutputStream out) throws IOException {
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gen.writeStartArray();
+
+            Long[] currentId = {null};
+            orderQueryRepository.streamAllRows(fetchSize, row -> {
+                try {
+                    Long orderId = (Long) row[0];
+                    if (!orderId.equals(currentId[0])) {
+                        if (currentId[0] != null) {
+                            endOrder(gen);
+                        }
+                        startOrder(gen, row);
+                        currentId[0] = orderId;
+                    }
+                    writeOrderItem(gen, row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (currentId[0] != null) {
+                endOrder(gen);
+            }
+            gen.writeEndArray();
+        }
+        out.flush();
+    }
+
+    private static void startOrder(JsonGenerator gen, Object[] row) throws IOException {
+        gen.writeStartObject();
+        gen.writeNumberField("orderId", (Long) row[0]);
+        gen.writeStringField("name", (String) row[1]);
+        writeDateTime(gen, "orderDate", (LocalDateTime) row[2]);
+        gen.writeStringField("orderStatus", row[3] == null ? null : ((OrderStatus) row[3]).name());
+
+        gen.writeObjectFieldStart("address");
+        gen.writeStringField("city", (String) row[4]);
+        gen.writeStringField("street", (String) row[5]);
+        gen.writeStringField("zipcode", (String) row[6]);
+        gen.writeEndObject();
+
+        gen.writeArrayFieldStart("orderItems");
+    }
+
+    private static void writeOrderItem(JsonGenerator gen, Object[] row) throws IOException {
+        if (row[8] == null) { // 주문상품 없음
+            return;
+        }
+        gen.writeStartObject();
+        gen.writeStringField("itemName", (String) row[7]);
+        gen.writeNumberField("orderPrice", (Integer) row[8]);
+        gen.writeNumberField("count", (Integer) row[9]);
+        gen.writeEndObject();
+    }
+
+    private static void endOrder(JsonGenerator gen) throws IOException {
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+
+    // ObjectMapper의 LocalDateTime 기본 형식과 동일 (ISO-8601)
+    private static void writeDateTime(JsonGenerator gen, String field, LocalDateTime value) throws IOException {
+        if (value == null) {
+            gen.writeNullField(field);
+        } else {
+            gen.writeStringField(field, DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+        }
+    }
+}
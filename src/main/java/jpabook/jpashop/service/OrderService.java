@@ -1,24 +1,43 @@
 package jpabook.jpashop.service;
 
+import jpabook.jpashop.concurrent.RetryOnConflict;
 import jpabook.jpashop.domain.*;
+import jpabook.jpashop.domain.event.OrderCanceledEvent;
+import jpabook.jpashop.domain.event.OrderPlacedEvent;
 import jpabook.jpashop.domain.item.Item;
 import jpabook.jpashop.repository.ItemRepository;
 import jpabook.jpashop.repository.MemberRepository;
 import jpabook.jpashop.repository.OrderRepository;
+import jpabook.jpashop.repository.OrderRequestKeyRepository;
+import jpabook.jpashop.repository.order.admin.OrderListPage;
+import jpabook.jpashop.repository.order.admin.OrderListQueryRepository;
+import jpabook.jpashop.search.MemberNameIndex;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class OrderService {
 
+    private static final int MAX_INDEXED_MEMBERS = 1000;
+
     private final OrderRepository orderRepository;
     private final MemberRepository memberRepository;
     private final ItemRepository itemRepository;
+    private final StockService stockService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MemberNameIndex memberNameIndex;
+    private final OrderRequestKeyRepository orderRequestKeyRepository;
+    private final OrderListQueryRepository orderListQueryRepository;
 
     /* 주문 */
     @Transactional
@@ -34,7 +53,7 @@ public class OrderService {
         delivery.setStatus(DeliveryStatus.READY);
 
         // 주문상품정보
-        OrderItem orderItem = OrderItem.createOrderItem(findItem, findItem.getPrice(), count);
+        OrderItem orderItem = OrderItem.createOrderItem(findItem, findItem.getPrice(), count, stockService);
 
         // 주문정보
         Order order = Order.createOrder(findMember,delivery,orderItem);
@@ -42,19 +61,106 @@ public class OrderService {
         // 저장
         // Delivery, OrderItem은 따로 persist명령 없이 Order엔티티의 Cascade옵션으로 같이 persist되도록 함.
         orderRepository.save(order);
+        eventPublisher.publishEvent(new OrderPlacedEvent(order));
 
         return order.getId();
     }
 
-    // 주문취소
+    /*
+        여러 상품 주문 (장바구니)
+        상품은 in쿼리 한 번으로 조회하고 하나의 Order에 여러 OrderItem을 담아 저장
+        Order의 Cascade로 OrderItem, Delivery가 함께 persist 되고 flush 시점에 jdbc batch로 insert 됨
+     */
+    @Transactional
+    public Long placeOrder(Long memberId, List<OrderLine> lines) {
+        if (lines == null || lines.isEmpty()) {
+            throw new IllegalArgumentException("주문 상품이 없습니다.");
+        }
+
+        // 엔티티 조회
+        Member findMember = memberRepository.findOne(memberId);
+        if (findMember == null) {
+            throw new IllegalArgumentException("존재하지 않는 회원입니다. memberId=" + memberId);
+        }
+        Set<Long> itemIds = lines.stream()
+                .map(OrderLine::getItemId)
+                .collect(Collectors.toSet());
+        Map<Long, Item> itemMap = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, i -> i));
+
+        // 배송정보
+        Delivery delivery = new Delivery();
+        delivery.setAddress(findMember.getAddress());
+        delivery.setStatus(DeliveryStatus.READY);
+
+        // 주문상품정보
+        OrderItem[] orderItems = new OrderItem[lines.size()];
+        for (int i = 0; i < lines.size(); i++) {
+            OrderLine line = lines.get(i);
+            Item findItem = itemMap.get(line.getItemId());
+            if (findItem == null) {
+                throw new IllegalArgumentException("존재하지 않는 상품입니다. itemId=" + line.getItemId());
+            }
+            orderItems[i] = OrderItem.createOrderItem(findItem, findItem.getPrice(), line.getCount(), stockService);
+        }
+
+        // 주문정보
+        Order order = Order.createOrder(findMember, delivery, orderItems);
+
+        // 저장
+        orderRepository.save(order);
+        eventPublisher.publishEvent(new OrderPlacedEvent(order));
+
+        return order.getId();
+    }
+
+    /*
+        요청 키와 함께 주문 (IdempotentOrderService에서 호출)
+        요청 키를 주문과 같은 트랜잭션에서 저장 => 이미 저장된 키면 DataIntegrityViolationException으로 주문/재고 차감이 함께 롤백됨
+        payloadHash: 요청 내용(회원, 상품, 수량)의 해시, 같은 키의 재시도가 같은 요청인지 확인용
+     */
+    @Transactional
+    public Long order(String requestKey, String payloadHash, Long memberId, Long itemId, int count) {
+        Long orderId = order(memberId, itemId, count);
+        orderRequestKeyRepository.save(new OrderRequestKey(requestKey, orderId, memberId, payloadHash));
+        return orderId;
+    }
+
+    @Transactional
+    public Long placeOrder(String requestKey, String payloadHash, Long memberId, List<OrderLine> lines) {
+        Long orderId = placeOrder(memberId, lines);
+        orderRequestKeyRepository.save(new OrderRequestKey(requestKey, orderId, memberId, payloadHash));
+        return orderId;
+    }
+
+    // 주문취소 (동시 취소로 버전이 충돌하면 다시 조회해 재시도 => 이미 취소된 주문이면 예외)
+    @RetryOnConflict
     @Transactional
     public void cancelOrder(Long orderId) {
         Order findOrder = orderRepository.findOne(orderId);
-        findOrder.cancel();
+        findOrder.cancel(stockService);
+        eventPublisher.publishEvent(new OrderCanceledEvent(findOrder));
+    }
+
+    /*
+        관리자 주문 목록 (대표상품 프로젝션 + 키셋 페이징)
+        회원명 조건이 있으면 회원 이름 색인에서 회원 id 후보를 먼저 찾고 member_id in (...) 조건을 더해 조회
+     */
+    public OrderListPage findOrderListPage(OrderSearch orderSearch, Long afterId, Long beforeId, int limit) {
+        return orderListQueryRepository.findPage(orderSearch, findMemberIdsByName(orderSearch), afterId, beforeId, limit);
     }
 
-    // 검색
-    public List<Order> findOrders(OrderSearch orderSearch) {
-        return orderRepository.findAllByString(orderSearch);
+    /*
+        회원명 조건 => 회원 id 후보 (회원 이름 색인, 회원명 like 조건은 그대로 적용됨)
+        null이면 회원 id로 거르지 않고 like 검색만 (회원명 조건이 없거나, 색인이 준비되지 않았거나 꺼져 있거나,
+        검색어가 짧거나 후보가 너무 많거나, 색인에서 찾지 못함)
+        색인은 이 노드에서 커밋된 변경만 알기 때문에 다른 노드에서 가입/변경한 회원일 수 있으므로 찾지 못하면 like로 다시 확인
+     */
+    private Set<Long> findMemberIdsByName(OrderSearch orderSearch) {
+        if (!StringUtils.hasText(orderSearch.getMemberName()) || !memberNameIndex.isReady()) {
+            return null;
+        }
+        Set<Long> found = memberNameIndex.search(orderSearch.getMemberName(), MAX_INDEXED_MEMBERS);
+        return found == null || found.isEmpty() ? null : found;
     }
 }
@@ -0,0 +1,122 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.domain.event.OrderCanceledEvent;
+import jpabook.jpashop.domain.event.OrderPlacedEvent;
+import jpabook.jpashop.repository.order.stats.OrderStatsDto;
+import jpabook.jpashop.repository.order.stats.OrderStatsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 일별 매출 집계 메모리 캐시 (주문 상태 ORDER만)
+ * 시작시 최근 rollupDays일을 DB에서 집계해 채우고, 이후 주문/취소가 커밋될 때마다 해당 날짜만 증감
+ *
+ * 적재 쿼리와 동시에 커밋된 주문은 두 번 세거나 빠질 수 있어 근사치임 (정확한 값은 DB 집계 사용)
+ */
+@Slf4j
+@Component
+public class OrderStatsRollup {
+
+    private final OrderStatsRepository orderStatsRepository;
+    private final int rollupDays;
+
+    private final Map<LocalDate, DailyTotals> days = new ConcurrentHashMap<>();
+    private volatile LocalDate loadedFrom;
+
+    public OrderStatsRollup(OrderStatsRepository orderStatsRepository,
+                            @Value("${jpashop.stats.rollup-days:90}") int rollupDays) {
+        this.orderStatsRepository = orderStatsRepository;
+        this.rollupDays = rollupDays;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        reload();
+    }
+
+    public synchronized void reload() {
+        LocalDate from = LocalDate.now().minusDays(rollupDays - 1);
+        List<OrderStatsDto> stats = orderStatsRepository.findDailyStats(
+                from.atStartOfDay(), LocalDate.now().plusDays(1).atStartOfDay(), OrderStatus.ORDER);
+
+        days.clear();
+        for (OrderStatsDto stat : stats) {
+            totals(LocalDate.parse(stat.getKey())).add(stat.getRevenue(), stat.getOrderCount(), stat.getQuantity());
+        }
+        loadedFrom = from;
+        log.info("order stats rollup loaded. days={}", stats.size());
+    }
+
+    // 캐시가 from부터의 기간을 모두 담고 있는지
+    public boolean covers(LocalDate from) {
+        LocalDate loaded = loadedFrom;
+        return loaded != null && !from.isBefore(loaded);
+    }
+
+    public List<OrderStatsDto> findDailyStats(LocalDate from, LocalDate to) {
+        List<OrderStatsDto> result = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            DailyTotals totals = days.get(day);
+            if (totals != null && totals.orderCount.sum() > 0) {
+                result.add(totals.toDto(day));
+            }
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        apply(event.getOrder(), 1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderCanceled(OrderCanceledEvent event) {
+        apply(event.getOrder(), -1);
+    }
+
+    private void apply(Order order, int sign) {
+        LocalDate day = order.getOrderDate().toLocalDate();
+        if (!covers(day)) {
+            return;
+        }
+        long quantity = 0;
+        for (OrderItem orderItem : order.getOrderItems()) {
+            quantity += orderItem.getCount();
+        }
+        totals(day).add(sign * (long) order.getTotalPrice(), sign, sign * quantity);
+    }
+
+    private DailyTotals totals(LocalDate day) {
+        return days.computeIfAbsent(day, d -> new DailyTotals());
+    }
+
+    private static class DailyTotals {
+        private final LongAdder revenue = new LongAdder();
+        private final LongAdder orderCount = new LongAdder();
+        private final LongAdder quantity = new LongAdder();
+
+        void add(long revenue, long orderCount, long quantity) {
+            this.revenue.add(revenue);
+            this.orderCount.add(orderCount);
+            this.quantity.add(quantity);
+        }
+
+        OrderStatsDto toDto(LocalDate day) {
+            return new OrderStatsDto(day.toString(), revenue.sum(), orderCount.sum(), quantity.sum());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.repository.order.stats.ItemSalesDto;
+import jpabook.jpashop.repository.order.stats.OrderStatsDto;
+import jpabook.jpashop.repository.order.stats.OrderStatsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 주문 통계 조회 (기간은 from ~ to 날짜 포함)
+ * 매출 통계는 기본적으로 취소되지 않은 주문(ORDER)만 집계
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class OrderStatsService {
+
+    private final OrderStatsRepository orderStatsRepository;
+    private final OrderStatsRollup orderStatsRollup;
+
+    // cached=true이고 캐시 기간 안이면 메모리 집계 사용 (DB 조회 없음)
+    public List<OrderStatsDto> findDailyStats(LocalDate from, LocalDate to, boolean cached) {
+        if (cached && orderStatsRollup.covers(from)) {
+            return orderStatsRollup.findDailyStats(from, to);
+        }
+        return orderStatsRepository.findDailyStats(start(from), end(to), OrderStatus.ORDER);
+    }
+
+    public List<OrderStatsDto> findStatusStats(LocalDate from, LocalDate to) {
+        return orderStatsRepository.findStatusStats(start(from), end(to));
+    }
+
+    public List<OrderStatsDto> findCategoryStats(LocalDate from, LocalDate to) {
+        return orderStatsRepository.findCategoryStats(start(from), end(to), OrderStatus.ORDER);
+    }
+
+    public List<ItemSalesDto> findTopItems(LocalDate from, LocalDate to, int limit) {
+        return orderStatsRepository.findTopItems(start(from), end(to), OrderStatus.ORDER, limit);
+    }
+
+    private static LocalDateTime start(LocalDate from) {
+        return from.atStartOfDay();
+    }
+
+    private static LocalDateTime end(LocalDate to) {
+        return to.plusDays(1).atStartOfDay();
+    }
+}
@@ -0,0 +1,71 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderSummary;
+import jpabook.jpashop.domain.event.MemberNameChangedEvent;
+import jpabook.jpashop.domain.event.OrderCanceledEvent;
+import jpabook.jpashop.domain.event.OrderPlacedEvent;
+import jpabook.jpashop.repository.order.summary.OrderSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 주문 요약 테이블 갱신
+ * 주문/취소 트랜잭션 안에서 동기로 갱신하므로 주문과 요약이 항상 함께 커밋(또는 롤백)됨
+ *
+ * 이벤트는 주문/취소 시점에만 발생하므로 시작시 요약이 없는 주문(기존 주문, 시드 데이터)을 한 번에 채움 (backfill)
+ * => mode=summary 조회가 전체 주문을 반환
+ */
+@Slf4j
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class OrderSummaryService {
+
+    private final OrderSummaryRepository orderSummaryRepository;
+
+    @Value("${jpashop.order-summary.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (backfillOnStartup) {
+            backfill();
+        }
+    }
+
+    // 요약이 없는 주문의 요약 생성, 생성한 수 반환
+    public int backfill() {
+        int inserted = orderSummaryRepository.insertMissing();
+        if (inserted > 0) {
+            log.info("order summary backfill. inserted={}", inserted);
+        }
+        return inserted;
+    }
+
+    @EventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        orderSummaryRepository.save(OrderSummary.createOrderSummary(event.getOrder()));
+    }
+
+    @EventListener
+    public void onOrderCanceled(OrderCanceledEvent event) {
+        Order order = event.getOrder();
+        OrderSummary summary = orderSummaryRepository.findOne(order.getId());
+        if (summary == null) { // 요약 테이블 도입 전의 주문
+            orderSummaryRepository.save(OrderSummary.createOrderSummary(order));
+            return;
+        }
+        summary.changeStatus(order.getStatus());
+    }
+
+    @EventListener
+    public void onMemberNameChanged(MemberNameChangedEvent event) {
+        orderSummaryRepository.updateMemberName(event.getMemberId(), event.getName());
+    }
+}
@@ -0,0 +1,132 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.event.StockChangedEvent;
+import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.domain.item.StockReservation;
+import jpabook.jpashop.exception.NotEnoughSotckException;
+import jpabook.jpashop.repository.ItemRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 재고 차감/복구
+ *
+ * 일반 상품: DB 조건부 update (stock = stock - ? where id = ? and stock >= ?) 한 번으로 차감
+ *           => 락 없이 초과 판매 방지, 실패하면 재고부족
+ * 인기 상품: HotStockCounter의 메모리 재고에서 먼저 차감하고, 부족하면 DB 조건부 update로 처리
+ *           (refillWaitMs > 0이면 그 전에 보충(lease)을 기다렸다가 다시 차감)
+ *           update가 0건이면 그 사이 lease로 메모리에 옮겨졌을 수 있으므로 lease가 메모리에 담기기를 기다렸다가 다시 차감
+ *           그래도 부족하면 메모리 재고와 DB 재고를 합쳐서 차감 (둘 다 따로는 모자라도 합치면 충분한 경우), 모자라면 재고부족
+ *           메모리에서 차감한 뒤 트랜잭션이 롤백되면 차감분을 메모리에 되돌려 놓음
+ *           취소로 인한 복구는 커밋된 후에 메모리에 반영
+ *
+ * 주문 외의 재고 변경(상품 수정, 일괄 등록)도 adjust/adjustTo로 차이만큼만 반영
+ * => 재고를 직접 덮어쓰면 인기 상품의 메모리 재고와 그 사이 들어온 주문이 사라지고 StockChangedEvent도 발행되지 않음
+ */
+@Service
+@RequiredArgsConstructor
+public class StockService implements StockReservation {
+
+    private final ItemRepository itemRepository;
+    private final HotStockCounter hotStockCounter;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void reserve(Item item, int quantity) {
+        Long itemId = item.getId();
+        if (hotStockCounter.tryReserve(itemId, quantity) || hotStockCounter.awaitRefill(itemId, quantity)) {
+            afterRollback(() -> hotStockCounter.release(itemId, quantity));
+        } else if (itemRepository.removeStock(itemId, quantity) == 1) {
+            itemRepository.refresh(item);
+        } else if (hotStockCounter.awaitRefill(itemId, quantity)) {
+            // DB 재고가 방금 lease로 메모리에 옮겨진 경우 (update가 lease 커밋을 기다렸다가 0건)
+            afterRollback(() -> hotStockCounter.release(itemId, quantity));
+        } else if (!reserveSplit(item, quantity)) {
+            throw new NotEnoughSotckException("재고부족");
+        }
+        eventPublisher.publishEvent(new StockChangedEvent(itemId, -quantity));
+    }
+
+    // 메모리 재고에서 가능한 만큼 차감하고 나머지를 DB에서 차감, DB도 모자라면 메모리 차감분을 되돌려 놓고 false
+    private boolean reserveSplit(Item item, int quantity) {
+        Long itemId = item.getId();
+        int fromMemory = hotStockCounter.reserveUpTo(itemId, quantity);
+        if (fromMemory == 0) {
+            return false;
+        }
+        if (fromMemory < quantity) {
+            if (itemRepository.removeStock(itemId, quantity - fromMemory) != 1) {
+                hotStockCounter.release(itemId, fromMemory);
+                return false;
+            }
+            itemRepository.refresh(item);
+        }
+        afterRollback(() -> hotStockCounter.release(itemId, fromMemory));
+        return true;
+    }
+
+    @Override
+    public void release(Item item, int quantity) {
+        Long itemId = item.getId();
+        if (hotStockCounter.isHot(itemId)) {
+            // 커밋 전에 메모리에 돌려놓으면 롤백시 이미 다른 주문이 가져갔을 수 있으므로 커밋 후에 반영
+            afterCommit(() -> hotStockCounter.release(itemId, quantity));
+        } else {
+            itemRepository.addStock(itemId, quantity);
+            itemRepository.refresh(item);
+        }
+        eventPublisher.publishEvent(new StockChangedEvent(itemId, quantity));
+    }
+
+    /**
+     * 재고를 delta만큼 늘리거나 줄임, 줄일 재고가 없으면 NotEnoughSotckException
+     */
+    public void adjust(Item item, int delta) {
+        if (delta > 0) {
+            release(item, delta);
+        } else if (delta < 0) {
+            reserve(item, -delta);
+        }
+    }
+
+    /**
+     * 조회되는 재고(DB 재고 + 메모리 재고)를 target으로 맞춤
+     */
+    public void adjustTo(Item item, int target) {
+        adjust(item, target - available(item));
+    }
+
+    public int available(Item item) {
+        return item.getStockQuantity() + hotStockCounter.available(item.getId());
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void afterRollback(Runnable compensation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    compensation.run();
+                }
+            }
+        });
+    }
+}
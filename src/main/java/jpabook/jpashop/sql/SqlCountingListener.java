@@ -0,0 +1,32 @@
+package jpabook.jpashop.sql;
+
+import com.p6spy.engine.common.ResultSetInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+
+/**
+ * p6spy 이벤트 리스너 (p6spy-spring-boot-starter가 JdbcEventListener 빈을 자동으로 등록)
+ * SQL 실행 수, 실행 시간, 읽은 row 수를 현재 스레드의 SqlStatistics에 기록
+ */
+@Component
+public class SqlCountingListener extends SimpleJdbcEventListener {
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        SqlStatistics statistics = SqlStatementCounter.current();
+        if (statistics != null && statementInformation.getSql() != null) {
+            statistics.recordStatement(statementInformation.getSql(), statementInformation.getSqlWithValues(), timeElapsedNanos);
+        }
+    }
+
+    @Override
+    public void onAfterResultSetNext(ResultSetInformation resultSetInformation, long timeElapsedNanos, boolean hasNext, SQLException e) {
+        SqlStatistics statistics = SqlStatementCounter.current();
+        if (statistics != null && hasNext) {
+            statistics.recordRow();
+        }
+    }
+}
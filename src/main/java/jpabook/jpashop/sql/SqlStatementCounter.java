@@ -0,0 +1,66 @@
+package jpabook.jpashop.sql;
+
+import java.util.function.Supplier;
+
+/**
+ * 현재 스레드에 SqlStatistics를 묶어두는 홀더
+ * start() ~ stop() 사이에 현재 스레드에서 실행된 SQL만 집계됨
+ *
+ * 다른 스레드로 넘기는 DB 작업(apiExecutor, ChunkedInQuery 청크 조회)은 wrap()으로 감싸서 넘김
+ * => 작업을 만든 스레드의 SqlStatistics가 실행 스레드에 묶이고, 작업이 끝나면 실행 스레드의 원래 값으로 되돌림
+ *
+ * @Coalesced 호출은 실제로 실행한 요청(leader)에만 집계되고, 결과만 받은 요청(follower)은 SQL 0건으로 집계됨
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    public static SqlStatistics start() {
+        return bind(new SqlStatistics());
+    }
+
+    /**
+     * 이미 만들어진 SqlStatistics를 현재 스레드에 묶음 (비동기 요청의 async dispatch 등)
+     */
+    public static SqlStatistics bind(SqlStatistics statistics) {
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    public static SqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    public static SqlStatistics stop() {
+        SqlStatistics statistics = CURRENT.get();
+        CURRENT.remove();
+        return statistics;
+    }
+
+    public static <T> Supplier<T> wrap(Supplier<T> task) {
+        SqlStatistics captured = CURRENT.get();
+        if (captured == null) {
+            return task;
+        }
+        return () -> {
+            SqlStatistics previous = CURRENT.get();
+            CURRENT.set(captured);
+            try {
+                return task.get();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    private static void restore(SqlStatistics previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
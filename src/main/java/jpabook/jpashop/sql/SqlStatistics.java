@@ -0,0 +1,79 @@
+package jpabook.jpashop.sql;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 요청 하나(또는 테스트 구간 하나) 동안 실행된 SQL 통계
+ *
+ * N+1 감지: 같은 모양의 SQL(바인딩 전 ?가 들어간 문자열)이 바인딩 값만 바뀌어 여러 번 실행되면 의심
+ * ex) findOrderQueryDtos()의 "... where oi.order_id=?"가 주문 수만큼 실행되는 경우
+ */
+public class SqlStatistics {
+
+    private long statements;
+    private long selects;
+    private long rows;
+    private long jdbcNanos;
+    private final Map<String, Shape> shapes = new HashMap<>();
+
+    synchronized void recordStatement(String sql, String sqlWithValues, long elapsedNanos) {
+        statements++;
+        jdbcNanos += elapsedNanos;
+        if (isSelect(sql)) {
+            selects++;
+        }
+        Shape shape = shapes.computeIfAbsent(sql, s -> new Shape());
+        shape.executions++;
+        if (shape.binds.size() < Shape.MAX_TRACKED_BINDS) {
+            shape.binds.add(sqlWithValues.hashCode());
+        }
+    }
+
+    synchronized void recordRow() {
+        rows++;
+    }
+
+    public synchronized long getStatements() {
+        return statements;
+    }
+
+    public synchronized long getSelects() {
+        return selects;
+    }
+
+    public synchronized long getRows() {
+        return rows;
+    }
+
+    public synchronized long getJdbcMillis() {
+        return jdbcNanos / 1_000_000;
+    }
+
+    /**
+     * threshold번 이상, 서로 다른 바인딩 값으로 반복 실행된 SQL 목록
+     */
+    public synchronized List<String> findNPlusOneSuspects(int threshold) {
+        return shapes.entrySet().stream()
+                .filter(e -> e.getValue().executions >= threshold && e.getValue().binds.size() > 1)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    private static boolean isSelect(String sql) {
+        String trimmed = sql.stripLeading();
+        return trimmed.regionMatches(true, 0, "select", 0, 6)
+                || trimmed.regionMatches(true, 0, "with", 0, 4);
+    }
+
+    private static class Shape {
+        static final int MAX_TRACKED_BINDS = 16;
+
+        long executions;
+        final Set<Integer> binds = new HashSet<>();
+    }
+}
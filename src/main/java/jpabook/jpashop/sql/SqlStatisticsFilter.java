@@ -0,0 +1,86 @@
+package jpabook.jpashop.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP 요청 단위 SQL 집계
+ * 요청 시작시 SqlStatistics를 현재 스레드에 묶고, 끝나면 메트릭으로 기록
+ * N+1 의심 SQL이 있으면 경고 로그를 남김
+ *
+ * 응답 헤더는 SqlStatisticsResponseAdvice에서 body를 쓰기 직전에 추가
+ *
+ * 비동기 요청(mode=async)은 SqlStatistics를 요청 속성에 보관해 두고 async dispatch에서 다시 묶음
+ * => apiExecutor에서 실행된 SQL(SqlStatementCounter.wrap)까지 합쳐서 작업이 끝난 뒤 한 번만 기록
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "jpashop.sql.stats.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    private static final String STATISTICS_ATTRIBUTE = SqlStatisticsFilter.class.getName() + ".statistics";
+
+    private final DistributionSummary statements;
+    private final DistributionSummary rows;
+    private final Timer jdbcTime;
+    private final int nPlusOneThreshold;
+
+    public SqlStatisticsFilter(MeterRegistry meterRegistry,
+                               @Value("${jpashop.sql.n-plus-one-threshold:5}") int nPlusOneThreshold) {
+        this.statements = DistributionSummary.builder("jpashop.sql.statements")
+                .description("요청당 SQL 실행 수").register(meterRegistry);
+        this.rows = DistributionSummary.builder("jpashop.sql.rows")
+                .description("요청당 읽은 row 수").register(meterRegistry);
+        this.jdbcTime = Timer.builder("jpashop.sql.time")
+                .description("요청당 JDBC 실행 시간").register(meterRegistry);
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        SqlStatistics statistics = (SqlStatistics) request.getAttribute(STATISTICS_ATTRIBUTE);
+        if (statistics == null) {
+            statistics = new SqlStatistics();
+            request.setAttribute(STATISTICS_ATTRIBUTE, statistics);
+        }
+        SqlStatementCounter.bind(statistics);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementCounter.stop();
+            if (!isAsyncStarted(request)) { // 비동기 요청이면 async dispatch에서 기록
+                record(request, statistics);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatistics statistics) {
+        statements.record(statistics.getStatements());
+        rows.record(statistics.getRows());
+        jdbcTime.record(statistics.getJdbcMillis(), TimeUnit.MILLISECONDS);
+
+        List<String> suspects = statistics.findNPlusOneSuspects(nPlusOneThreshold);
+        if (!suspects.isEmpty()) {
+            log.warn("N+1 의심 {} {} : {}", request.getMethod(), request.getRequestURI(), suspects);
+        }
+    }
+}
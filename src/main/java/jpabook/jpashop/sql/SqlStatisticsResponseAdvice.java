@@ -0,0 +1,46 @@
+package jpabook.jpashop.sql;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * @ResponseBody 응답에 SQL 통계 헤더 추가
+ * body를 쓰기 직전(= 조회가 끝난 뒤)에 실행되므로 헤더를 쓸 수 있는 마지막 시점
+ *
+ * X-Sql-Statements / X-Sql-Selects / X-Sql-Rows / X-Sql-Time-Ms / X-Sql-N-Plus-One(의심 SQL 수)
+ */
+@RestControllerAdvice
+public class SqlStatisticsResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    @Value("${jpashop.sql.n-plus-one-threshold:5}")
+    private int nPlusOneThreshold;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        SqlStatistics statistics = SqlStatementCounter.current();
+        if (statistics != null) {
+            HttpHeaders headers = response.getHeaders();
+            headers.set("X-Sql-Statements", String.valueOf(statistics.getStatements()));
+            headers.set("X-Sql-Selects", String.valueOf(statistics.getSelects()));
+            headers.set("X-Sql-Rows", String.valueOf(statistics.getRows()));
+            headers.set("X-Sql-Time-Ms", String.valueOf(statistics.getJdbcMillis()));
+            headers.set("X-Sql-N-Plus-One", String.valueOf(
+                    statistics.findNPlusOneSuspects(nPlusOneThreshold).size()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,122 @@
+package jpabook.jpashop.concurrent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CoalescingAspectTest {
+
+    @Autowired SlowLoader slowLoader;
+    @Autowired MeterRegistry meterRegistry;
+
+    @Test
+    public void 동시_같은_인자_호출은_한번만_실행() throws Exception {
+        //given
+        int threads = 16;
+        slowLoader.calls.set(0);
+        double followers = followerCount();
+
+        //when
+        List<Integer> results = callConcurrently(threads, () -> slowLoader.load(1));
+
+        //then
+        assertEquals(1, slowLoader.calls.get());
+        assertTrue(results.stream().allMatch(r -> r == 1));
+        assertEquals(threads - 1, followerCount() - followers, 0.0001);
+    }
+
+    @Test
+    public void 인자가_다르면_각각_실행() throws Exception {
+        //given
+        slowLoader.calls.set(0);
+
+        //when
+        callConcurrently(2, () -> slowLoader.load(10));
+        callConcurrently(2, () -> slowLoader.load(11));
+
+        //then
+        assertEquals(2, slowLoader.calls.get());
+    }
+
+    @Test
+    public void ttl_안에는_결과_재사용() throws Exception {
+        //given
+        slowLoader.calls.set(0);
+
+        //when
+        slowLoader.loadWithTtl(20);
+        slowLoader.loadWithTtl(20);
+        Thread.sleep(300);
+        slowLoader.loadWithTtl(20);
+
+        //then
+        assertEquals(2, slowLoader.calls.get(), "ttl이 지난 뒤에만 다시 실행");
+    }
+
+    @Test
+    public void 실행한_호출의_예외를_함께_받음() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> slowLoader.load(-1));
+    }
+
+    private double followerCount() {
+        return meterRegistry.counter("jpashop.coalesced.calls", "method", "SlowLoader.load", "role", "follower").count();
+    }
+
+    private static List<Integer> callConcurrently(int threads, Callable<Integer> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        List<Integer> results = new ArrayList<>();
+        for (Future<Integer> future : futures) {
+            results.add(future.get(10, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        return results;
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        SlowLoader slowLoader() {
+            return new SlowLoader();
+        }
+    }
+
+    static class SlowLoader {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Coalesced
+        public int load(int id) throws InterruptedException {
+            calls.incrementAndGet();
+            if (id < 0) {
+                throw new IllegalArgumentException("id < 0");
+            }
+            Thread.sleep(200);
+            return id;
+        }
+
+        @Coalesced(ttlMs = 100)
+        public int loadWithTtl(int id) {
+            calls.incrementAndGet();
+            return id;
+        }
+    }
+}
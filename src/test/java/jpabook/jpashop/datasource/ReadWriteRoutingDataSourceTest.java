@@ -0,0 +1,162 @@
+package jpabook.jpashop.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * H2 메모리 DB 두 개를 primary/replica로 사용
+ * 각 DB의 node 테이블에 자신의 이름을 넣어 두고 어느 DB로 라우팅되었는지 확인
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private DriverManagerDataSource primary;
+    private DriverManagerDataSource replica;
+    private ReadWriteRoutingDataSource routing;
+    private TransactionTemplate writeTx;
+    private TransactionTemplate readTx;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("primary");
+        replica = h2("replica");
+        routing = new ReadWriteRoutingDataSource(primary, List.of(replica), 200, 0);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        writeTx = new TransactionTemplate(transactionManager);
+        readTx = new TransactionTemplate(transactionManager);
+        readTx.setReadOnly(true);
+        jdbcTemplate = new JdbcTemplate(routing);
+    }
+
+    @AfterEach
+    void tearDown() {
+        routing.close();
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    public void 읽기전용_트랜잭션은_replica() throws Exception {
+        assertEquals("replica", readTx.execute(status -> node()));
+        assertEquals("primary", writeTx.execute(status -> node()));
+        assertEquals("primary", node()); // 트랜잭션 밖
+    }
+
+    @Test
+    public void 쓰기_직후_읽기는_primary() throws Exception {
+        //given
+        writeTx.executeWithoutResult(status -> jdbcTemplate.update("update node set name = name"));
+
+        //when
+        String afterWrite = readTx.execute(status -> node());
+        Thread.sleep(300); // read-your-writes 시간(200ms) 경과
+        String afterWindow = readTx.execute(status -> node());
+
+        //then
+        assertEquals("primary", afterWrite);
+        assertEquals("replica", afterWindow);
+    }
+
+    @Test
+    public void replica_장애시_primary() throws Exception {
+        //given
+        DriverManagerDataSource down = new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/none", "sa", "");
+        ReadWriteRoutingDataSource broken = new ReadWriteRoutingDataSource(primary, List.of(down), 0, 0);
+        TransactionTemplate brokenReadTx = new TransactionTemplate(new DataSourceTransactionManager(broken));
+        brokenReadTx.setReadOnly(true);
+
+        //when
+        String node = brokenReadTx.execute(status -> new JdbcTemplate(broken).queryForObject("select name from node", String.class));
+        broken.checkHealth();
+
+        //then
+        assertEquals("primary", node); // 커넥션 획득 실패시 primary로 대체
+        assertEquals(0, broken.healthyReplicas());
+        broken.close();
+    }
+
+    @Test
+    public void JPA_트랜잭션도_같은_규칙으로_라우팅() throws Exception {
+        //given Hibernate + JpaTransactionManager (엔티티 없이 native 쿼리로 확인)
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(routing);
+        factory.setPackagesToScan(ReadWriteRoutingDataSourceTest.class.getPackageName());
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaPropertyMap(Map.of("hibernate.dialect", "org.hibernate.dialect.H2Dialect"));
+        factory.afterPropertiesSet();
+        EntityManagerFactory emf = factory.getObject();
+        EntityManager em = SharedEntityManagerCreator.createSharedEntityManager(emf);
+        JpaTransactionManager transactionManager = new JpaTransactionManager(emf);
+        TransactionTemplate jpaWriteTx = new TransactionTemplate(transactionManager);
+        TransactionTemplate jpaReadTx = new TransactionTemplate(transactionManager);
+        jpaReadTx.setReadOnly(true);
+
+        //when
+        Object read = jpaReadTx.execute(status -> em.createNativeQuery("select name from node").getSingleResult());
+        Object write = jpaWriteTx.execute(status -> em.createNativeQuery("select name from node").getSingleResult());
+        jpaWriteTx.executeWithoutResult(status -> em.createNativeQuery("update node set name = name").executeUpdate());
+        Object afterWrite = jpaReadTx.execute(status -> em.createNativeQuery("select name from node").getSingleResult());
+        factory.destroy();
+
+        //then
+        assertEquals("replica", read);
+        assertEquals("primary", write);
+        assertEquals("primary", afterWrite, "쓰기 커밋 직후 읽기는 primary");
+    }
+
+    @Test
+    public void 다른_스레드_작업은_요청의_쓰기_시각을_따르고_끝나면_지움() throws Exception {
+        //given
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ReadYourWrites.markWrite(1000);
+
+        //when 작업은 요청 스레드에서 감싸서 넘김
+        Supplier<Boolean> read = ReadYourWrites.wrap(() -> ReadYourWrites.isWithin(1000));
+        boolean propagated = executor.submit(read::get).get();
+        ReadYourWrites.clear();
+        Supplier<Object> write = ReadYourWrites.wrap(() -> {
+            ReadYourWrites.markWrite(1000); // 풀 스레드에서 커밋된 쓰기
+            return null;
+        });
+        executor.submit(write::get).get();
+        boolean leaked = executor.submit(() -> ReadYourWrites.isWithin(1000)).get();
+        executor.shutdown();
+
+        //then
+        assertTrue(propagated, "요청 스레드의 마지막 쓰기 시각이 작업 스레드로 전달");
+        assertFalse(leaked, "작업이 끝나면 풀 스레드에 남지 않음");
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("select name from node", String.class);
+    }
+
+    private static DriverManagerDataSource h2(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table node (name varchar(20))");
+        jdbcTemplate.update("insert into node values (?)", name);
+        return dataSource;
+    }
+}
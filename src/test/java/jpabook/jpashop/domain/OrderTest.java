@@ -4,6 +4,7 @@ import jpabook.jpashop.domain.item.Book;
 import jpabook.jpashop.exception.NotEnoughSotckException;
 import jpabook.jpashop.repository.ItemRepository;
 import jpabook.jpashop.repository.OrderRepository;
+import jpabook.jpashop.service.OrderLine;
 import jpabook.jpashop.service.OrderService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
@@ -14,6 +15,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -79,6 +81,59 @@ class OrderTest {
         Assertions.assertEquals(quantity,5);
     }
 
+    @Test
+    public void 여러_상품_주문() throws Exception {
+        //given
+        Member member = createMember();
+        Book book1 = createBook("book1", 10000, 10);
+        Book book2 = createBook("book2", 20000, 10);
+
+        //when
+        Long orderId = orderService.placeOrder(member.getId(),
+                List.of(new OrderLine(book1.getId(), 2), new OrderLine(book2.getId(), 3)));
+        Order findOrder = orderRepository.findOne(orderId);
+
+        //then
+        assertEquals(2, findOrder.getOrderItems().size(), "주문 상품 종류수 검증");
+        assertEquals(10000 * 2 + 20000 * 3, findOrder.getTotalPrice(), "주문 가격 검증");
+        assertEquals(8, book1.getStockQuantity(), "주문 수량만큼 재고 감소 검증");
+        assertEquals(7, book2.getStockQuantity(), "주문 수량만큼 재고 감소 검증");
+    }
+
+    @Test
+    public void 존재하지_않는_회원_주문() throws Exception {
+        //given
+        Book book = createBook("book1", 10000, 10);
+
+        //then
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                orderService.placeOrder(-1L, List.of(new OrderLine(book.getId(), 1))));
+        assertEquals(10, book.getStockQuantity(), "재고는 그대로");
+    }
+
+    @Test
+    public void 주문_요약_갱신() throws Exception {
+        //given
+        Member member = createMember();
+        Book book = createBook("book1", 10000, 10);
+
+        //when
+        Long orderId = orderService.order(member.getId(), book.getId(), 2);
+        OrderSummary summary = em.find(OrderSummary.class, orderId);
+
+        //then
+        assertEquals("kim", summary.getMemberName());
+        assertEquals(OrderStatus.ORDER, summary.getStatus());
+        assertEquals(20000, summary.getTotalPrice(), "주문 총액");
+        assertEquals(1, summary.getLineCount(), "주문 상품 종류수");
+
+        //when
+        orderService.cancelOrder(orderId);
+
+        //then
+        assertEquals(OrderStatus.CANCEL, em.find(OrderSummary.class, orderId).getStatus(), "취소시 요약 상태 변경");
+    }
+
     private Member createMember() {
         Member member = new Member();
         member.setName("kim");
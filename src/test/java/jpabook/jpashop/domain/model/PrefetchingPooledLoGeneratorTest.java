@@ -0,0 +1,75 @@
+package jpabook.jpashop.domain.model;
+
+import jpabook.jpashop.domain.Delivery;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 식별자 블록을 여러 번 넘겨도(테스트 설정 increment_size 50) 중복 없이 증가하는지 검증
+ * 블록 조회가 별도 세션에서 일어나므로 @Transactional을 붙이지 않음
+ */
+@SpringBootTest
+class PrefetchingPooledLoGeneratorTest {
+
+    @Autowired TransactionTemplate transactionTemplate;
+    @Autowired EntityManager em;
+
+    @Test
+    public void 블록을_넘겨도_식별자_증가() throws Exception {
+        //when
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ids.addAll(persistDeliveries(20));
+        }
+
+        //then
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i) > ids.get(i - 1), "식별자는 증가: " + ids.get(i - 1) + " -> " + ids.get(i));
+        }
+    }
+
+    @Test
+    public void 동시_insert_식별자_중복_없음() throws Exception {
+        //given
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        List<Future<?>> futures = new ArrayList<>();
+
+        //when
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 10; i++) {
+                    ids.addAll(persistDeliveries(25));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        //then
+        assertEquals(threads * 10 * 25, ids.size());
+    }
+
+    private List<Long> persistDeliveries(int count) {
+        return transactionTemplate.execute(status -> {
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                Delivery delivery = new Delivery();
+                em.persist(delivery);
+                ids.add(delivery.getId());
+            }
+            return ids;
+        });
+    }
+}
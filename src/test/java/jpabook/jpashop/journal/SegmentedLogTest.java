@@ -0,0 +1,72 @@
+package jpabook.jpashop.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentedLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void 기록후_offset부터_재생() throws Exception {
+        //given
+        try (SegmentedLog log = new SegmentedLog(dir, 64, 0, 5, 100)) { // 작은 세그먼트로 파일 넘김 확인
+            for (int i = 0; i < 10; i++) {
+                assertEquals(i, log.append(("event-" + i).getBytes(StandardCharsets.UTF_8)).get());
+            }
+
+            //when
+            List<String> replayed = new ArrayList<>();
+            long next = log.read(3, 4, (offset, payload) -> replayed.add(offset + ":" + new String(payload, StandardCharsets.UTF_8)));
+
+            //then
+            assertEquals(List.of("3:event-3", "4:event-4", "5:event-5", "6:event-6"), replayed);
+            assertEquals(7, next);
+            assertTrue(segments().size() > 1);
+        }
+    }
+
+    @Test
+    public void 재시작시_깨진_꼬리_제거후_이어쓰기() throws Exception {
+        //given
+        try (SegmentedLog log = new SegmentedLog(dir, 1024, 0, 0, 100)) {
+            log.append("a".getBytes(StandardCharsets.UTF_8)).get();
+            log.append("b".getBytes(StandardCharsets.UTF_8)).get();
+        }
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1); // 마지막 레코드가 쓰다 만 상태
+        }
+
+        //when
+        try (SegmentedLog log = new SegmentedLog(dir, 1024, 0, 0, 100)) {
+            long offset = log.append("c".getBytes(StandardCharsets.UTF_8)).get();
+
+            //then
+            assertEquals(1, offset);
+            List<String> replayed = new ArrayList<>();
+            log.read(0, 10, (o, payload) -> replayed.add(new String(payload, StandardCharsets.UTF_8)));
+            assertEquals(List.of("a", "c"), replayed);
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.toString().endsWith(".log")).sorted().collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.sql.SqlStatementCounter;
+import jpabook.jpashop.sql.SqlStatistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ChunkedInQueryTest {
+
+    @Test
+    public void 청크는_2의_거듭제곱_크기로_채움() throws Exception {
+        //when
+        List<List<Long>> chunks = ChunkedInQuery.chunks(ids(11), 4);
+
+        //then
+        assertEquals(List.of(List.of(1L, 2L, 3L, 4L), List.of(5L, 6L, 7L, 8L), List.of(9L, 10L, 11L, 11L)), chunks);
+        assertEquals(List.of(List.of(1L)), ChunkedInQuery.chunks(ids(1), 4));
+        assertEquals(List.of(List.of(1L, 2L, 3L, 3L)), ChunkedInQuery.chunks(ids(3), 8));
+        assertTrue(ChunkedInQuery.chunks(List.of(), 4).isEmpty());
+    }
+
+    @Test
+    public void 병렬_조회_결과를_모두_받음() throws Exception {
+        //given
+        ChunkedInQuery chunkedInQuery = new ChunkedInQuery(mock(PlatformTransactionManager.class), 8, 4, 256);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        List<Long> received = new ArrayList<>();
+
+        //when
+        chunkedInQuery.forEachChunk(ids(100), chunk -> {
+            threads.add(Thread.currentThread().getName());
+            return chunk.stream().distinct().collect(Collectors.toList());
+        }, received::addAll);
+        chunkedInQuery.close();
+
+        //then
+        assertEquals(ids(100), received.stream().sorted().collect(Collectors.toList()));
+        assertTrue(threads.stream().allMatch(name -> name.startsWith("in-query-")), "호출 스레드가 아닌 청크 조회 스레드에서 실행");
+    }
+
+    @Test
+    public void 청크_조회_예외_전달() throws Exception {
+        //given
+        ChunkedInQuery chunkedInQuery = new ChunkedInQuery(mock(PlatformTransactionManager.class), 8, 4, 256);
+
+        //then
+        assertThrows(IllegalStateException.class, () -> chunkedInQuery.forEachChunk(ids(100), chunk -> {
+            throw new IllegalStateException("db down");
+        }, chunk -> { }));
+        chunkedInQuery.close();
+    }
+
+    @Test
+    public void 청크_조회_SQL은_호출한_스레드의_통계에_집계() throws Exception {
+        //given
+        ChunkedInQuery chunkedInQuery = new ChunkedInQuery(mock(PlatformTransactionManager.class), 8, 4, 256);
+        Set<Object> bound = ConcurrentHashMap.newKeySet();
+        SqlStatistics statistics = SqlStatementCounter.start();
+
+        //when
+        try {
+            chunkedInQuery.forEachChunk(ids(100), chunk -> {
+                bound.add(SqlStatementCounter.current());
+                return chunk;
+            }, chunk -> { });
+        } finally {
+            SqlStatementCounter.stop();
+        }
+        Set<Object> afterwards = ConcurrentHashMap.newKeySet();
+        chunkedInQuery.forEachChunk(ids(100), chunk -> {
+            afterwards.add(Optional.ofNullable(SqlStatementCounter.current()));
+            return chunk;
+        }, chunk -> { });
+        chunkedInQuery.close();
+
+        //then
+        assertEquals(Set.of(statistics), bound, "청크 조회 스레드에 호출 스레드의 SqlStatistics가 묶임");
+        assertEquals(Set.of(Optional.empty()), afterwards, "작업이 끝나면 청크 조회 스레드에서 풀림");
+    }
+
+    @Test
+    public void 트랜잭션_안에서는_호출_스레드에서_차례로_조회() throws Exception {
+        //given
+        ChunkedInQuery chunkedInQuery = new ChunkedInQuery(mock(PlatformTransactionManager.class), 8, 4, 256);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        List<Long> received = new ArrayList<>();
+
+        //when
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            chunkedInQuery.forEachChunk(ids(100), chunk -> {
+                threads.add(Thread.currentThread().getName());
+                return chunk.stream().distinct().collect(Collectors.toList());
+            }, received::addAll);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        chunkedInQuery.close();
+
+        //then
+        assertEquals(ids(100), received, "청크 순서대로 받음");
+        assertEquals(Set.of(Thread.currentThread().getName()), threads, "호출한 트랜잭션(같은 스냅샷)에서 조회");
+    }
+
+    @Test
+    public void 동시_청크_조회는_parallelism_이하() throws Exception {
+        //given
+        ChunkedInQuery chunkedInQuery = new ChunkedInQuery(mock(PlatformTransactionManager.class), 8, 2, 256);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        //when
+        chunkedInQuery.forEachChunk(ids(100), chunk -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            return chunk;
+        }, chunk -> { });
+        chunkedInQuery.close();
+
+        //then
+        assertTrue(maxRunning.get() <= 2, "청크 조회 스레드 수 이하로만 동시에 조회");
+    }
+
+    private static List<Long> ids(int count) {
+        return LongStream.rangeClosed(1, count).boxed().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,72 @@
+package jpabook.jpashop.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongGroupIndexTest {
+
+    @Test
+    public void 키별_row_조회() throws Exception {
+        //given (정렬된 청크가 순서 없이 이어진 입력)
+        List<long[]> rows = List.of(row(7, 1), row(7, 2), row(9, 3), row(2, 4), row(2, 5), row(7, 6));
+
+        //when
+        LongGroupIndex<long[]> index = LongGroupIndex.build(rows, r -> r[0]);
+
+        //then
+        assertEquals(3, index.groupCount());
+        assertEquals(6, index.size());
+        assertEquals(List.of(4L, 5L), values(index.get(2)));
+        assertEquals(List.of(1L, 2L, 6L), values(index.get(7)), "같은 키 안에서는 입력 순서 유지");
+        assertEquals(List.of(3L), values(index.get(9)));
+        assertNull(index.get(8));
+    }
+
+    @Test
+    public void 키_오름차순_그룹_순회() throws Exception {
+        //given
+        List<long[]> rows = new ArrayList<>();
+        for (long key = 10_000; key > 0; key--) {
+            rows.add(row(key * 1024, key)); // 해시 충돌이 나기 쉬운 키
+        }
+        LongGroupIndex<long[]> index = LongGroupIndex.build(rows, r -> r[0]);
+        List<Long> keys = new ArrayList<>();
+
+        //when
+        index.forEachGroup((key, group) -> {
+            assertEquals(1, group.size());
+            keys.add(key);
+        });
+
+        //then
+        assertEquals(10_000, keys.size());
+        for (int i = 1; i < keys.size(); i++) {
+            assertTrue(keys.get(i - 1) < keys.get(i));
+        }
+        assertEquals(List.of(5000L), values(index.get(5000L * 1024)));
+    }
+
+    @Test
+    public void 빈_목록() throws Exception {
+        //when
+        LongGroupIndex<long[]> index = LongGroupIndex.build(List.<long[]>of(), r -> r[0]);
+
+        //then
+        assertEquals(0, index.groupCount());
+        assertNull(index.get(0));
+    }
+
+    private static long[] row(long key, long value) {
+        return new long[]{key, value};
+    }
+
+    private static List<Long> values(List<long[]> rows) {
+        List<Long> values = new ArrayList<>();
+        rows.forEach(r -> values.add(r[1]));
+        return values;
+    }
+}
@@ -0,0 +1,153 @@
+package jpabook.jpashop.repository.order.admin;
+
+import jpabook.jpashop.domain.*;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.service.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+
+import static jpabook.jpashop.sql.SqlAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 관리자 주문 목록: 대표상품 프로젝션 + 키셋 페이징
+ */
+@SpringBootTest
+@Transactional
+class OrderListQueryRepositoryTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired OrderListQueryRepository orderListQueryRepository;
+    @Autowired OrderService orderService;
+
+    private final List<Long> orderIds = new ArrayList<>();
+    private OrderSearch search;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 5; i++) {
+            orderIds.add(createOrder("admin-list-user-" + i, "first-" + i, "second-" + i));
+        }
+        em.flush();
+        em.clear();
+
+        search = new OrderSearch();
+        search.setMemberName("admin-list-user-");
+    }
+
+    @AfterEach
+    void tearDown() {
+        stopCounting();
+    }
+
+    @Test
+    public void 대표상품_쿼리_한번() throws Exception {
+        //when
+        startCounting();
+        OrderListPage page = orderListQueryRepository.findPage(search, null, null, null, 10);
+
+        //then
+        assertSelectCount(1);
+        assertEquals(5, page.getRows().size(), "주문상품 수만큼 늘어나지 않음");
+        OrderListDto newest = page.getRows().get(0);
+        assertEquals(orderIds.get(4), newest.getOrderId());
+        assertEquals("admin-list-user-4", newest.getMemberName());
+        assertEquals("first-4", newest.getItemName(), "대표상품은 첫 번째 주문상품");
+        assertNull(page.getNextAfter());
+        assertNull(page.getPrevBefore());
+    }
+
+    @Test
+    public void 키셋_다음_이전_페이지() throws Exception {
+        //when
+        OrderListPage first = orderListQueryRepository.findPage(search, null, null, null, 2);
+        OrderListPage second = orderListQueryRepository.findPage(search, null, first.getNextAfter(), null, 2);
+        OrderListPage back = orderListQueryRepository.findPage(search, null, null, second.getPrevBefore(), 2);
+
+        //then
+        assertEquals(List.of(orderIds.get(4), orderIds.get(3)), ids(first));
+        assertEquals(List.of(orderIds.get(2), orderIds.get(1)), ids(second));
+        assertEquals(ids(first), ids(back));
+        assertNull(back.getPrevBefore(), "가장 최신 페이지");
+    }
+
+    @Test
+    public void 회원명_like_검색은_대소문자_공백_무시() throws Exception {
+        //given
+        OrderSearch upper = new OrderSearch();
+        upper.setMemberName(" ADMIN-LIST-USER-3 ");
+        OrderSearch wildcard = new OrderSearch();
+        wildcard.setMemberName("admin_list");
+
+        //when
+        OrderListPage page = orderListQueryRepository.findPage(upper, null, null, null, 10);
+
+        //then
+        assertEquals(List.of(orderIds.get(3)), ids(page));
+        assertTrue(orderListQueryRepository.findPage(wildcard, null, null, null, 10).getRows().isEmpty(), "_는 문자 그대로 검색");
+    }
+
+    @Test
+    public void 색인_후보는_회원명으로_다시_확인() throws Exception {
+        //given
+        List<Long> candidates = em.createQuery("select m.id from Member m where m.name like 'admin-list-user-%'", Long.class)
+                .getResultList();
+        OrderSearch one = new OrderSearch();
+        one.setMemberName("admin-list-user-3");
+
+        //when
+        OrderListPage page = orderListQueryRepository.findPage(one, candidates, null, null, 10);
+
+        //then
+        assertEquals(List.of(orderIds.get(3)), ids(page), "이름이 맞지 않는 후보는 제외");
+    }
+
+    @Test
+    public void 색인이_모르는_회원도_like로_찾음() throws Exception {
+        //when (회원을 회원가입 없이 저장 => 다른 노드에서 가입한 회원처럼 색인에 없음)
+        OrderListPage page = orderService.findOrderListPage(search, null, null, 10);
+
+        //then
+        assertEquals(5, page.getRows().size());
+    }
+
+    private static List<Long> ids(OrderListPage page) {
+        List<Long> ids = new ArrayList<>();
+        page.getRows().forEach(r -> ids.add(r.getOrderId()));
+        return ids;
+    }
+
+    private Long createOrder(String memberName, String... itemNames) {
+        Member member = new Member();
+        member.setName(memberName);
+        member.setAddress(new Address("aaa", "bbb", "ccc"));
+        em.persist(member);
+
+        OrderItem[] orderItems = new OrderItem[itemNames.length];
+        for (int i = 0; i < itemNames.length; i++) {
+            Book book = new Book();
+            book.setName(itemNames[i]);
+            book.setPrice(10000);
+            book.setStockQuantity(10);
+            em.persist(book);
+            orderItems[i] = OrderItem.createOrderItem(book, book.getPrice(), 1);
+        }
+
+        Delivery delivery = new Delivery();
+        delivery.setAddress(member.getAddress());
+        Order order = Order.createOrder(member, delivery, orderItems);
+        em.persist(order);
+        return order.getId();
+    }
+}
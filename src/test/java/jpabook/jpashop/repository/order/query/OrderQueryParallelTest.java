@@ -0,0 +1,75 @@
+package jpabook.jpashop.repository.order.query;
+
+import jpabook.jpashop.concurrent.JdbcBulkhead;
+import jpabook.jpashop.domain.*;
+import jpabook.jpashop.domain.item.Book;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 트랜잭션 없이 호출한 v5 조회는 주문상품을 청크별 읽기 전용 트랜잭션으로 병렬 조회 (테스트 트랜잭션 없이 실제로 커밋)
+ * JDBC 벌크헤드 자리를 하나만 두고, 그 자리를 잡은 채로 호출해도 청크 조회가 자리를 기다리지 않음
+ */
+@SpringBootTest(properties = {
+        "jpashop.query.in-chunk-size=2",
+        "jpashop.async.max-concurrent-queries=1",
+        "jpashop.async.acquire-timeout-ms=100"
+})
+class OrderQueryParallelTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired OrderQueryRepository orderQueryRepository;
+    @Autowired JdbcBulkhead jdbcBulkhead;
+    @Autowired TransactionTemplate transactionTemplate;
+
+    @Test
+    public void 벌크헤드_자리를_잡은_채로_병렬_청크_조회() throws Exception {
+        //given
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < 5; i++) {
+                createOrder("parallel-user-" + i);
+            }
+        });
+
+        //when
+        List<OrderQueryDto> result = jdbcBulkhead.call(() -> orderQueryRepository.findAllByDto_Optimization()).stream()
+                .filter(o -> o.getName().startsWith("parallel-user-"))
+                .collect(Collectors.toList());
+
+        //then
+        assertEquals(5, result.size());
+        for (OrderQueryDto order : result) {
+            assertEquals(1, order.getOrderItems().size(), "모든 청크의 주문상품을 모음");
+            assertEquals("parallel-book", order.getOrderItems().get(0).getItemName());
+        }
+        assertEquals(1, jdbcBulkhead.availablePermits());
+    }
+
+    private void createOrder(String memberName) {
+        Member member = new Member();
+        member.setName(memberName);
+        member.setAddress(new Address("aaa", "bbb", "ccc"));
+        em.persist(member);
+
+        Book book = new Book();
+        book.setName("parallel-book");
+        book.setPrice(10000);
+        book.setStockQuantity(10);
+        em.persist(book);
+
+        Delivery delivery = new Delivery();
+        delivery.setAddress(member.getAddress());
+        em.persist(Order.createOrder(member, delivery, OrderItem.createOrderItem(book, book.getPrice(), 1)));
+    }
+}
@@ -0,0 +1,146 @@
+package jpabook.jpashop.repository.order.query;
+
+import jpabook.jpashop.domain.*;
+import jpabook.jpashop.domain.item.Book;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static jpabook.jpashop.sql.SqlAssertions.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 주문 DTO 조회 쿼리 예산 검증
+ */
+@SpringBootTest
+@Transactional
+class OrderQueryRepositoryTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired OrderQueryRepository orderQueryRepository;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 3; i++) {
+            createOrder("query-user-" + i);
+        }
+        em.flush();
+        em.clear();
+        startCounting();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stopCounting();
+    }
+
+    @Test
+    public void v5_쿼리_2번() throws Exception {
+        List<OrderQueryDto> result = orderQueryRepository.findAllByDto_Optimization();
+
+        assertFalse(result.isEmpty());
+        assertSelectCount(2);
+        assertNoNPlusOne(3);
+    }
+
+    @Test
+    public void v6_주문별로_묶은_결과는_v5와_같음() throws Exception {
+        //when
+        List<OrderQueryDto> grouped = mine(orderQueryRepository.findAllByDto_FlatGrouped());
+        List<OrderQueryDto> v5 = mine(orderQueryRepository.findAllByDto_Optimization());
+        v5.sort(Comparator.comparing(OrderQueryDto::getOrderId));
+
+        //then
+        assertEquals(3, grouped.size());
+        assertEquals(v5.size(), grouped.size());
+        for (int i = 0; i < v5.size(); i++) {
+            OrderQueryDto expected = v5.get(i);
+            OrderQueryDto actual = grouped.get(i);
+            assertEquals(expected.getOrderId(), actual.getOrderId(), "주문 id 순");
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getOrderDate(), actual.getOrderDate());
+            assertEquals(expected.getOrderStatus(), actual.getOrderStatus());
+            assertEquals(expected.getAddress().getCity(), actual.getAddress().getCity());
+            assertEquals(expected.getAddress().getStreet(), actual.getAddress().getStreet());
+            assertEquals(expected.getAddress().getZipcode(), actual.getAddress().getZipcode());
+            assertEquals(expected.getOrderItems(), actual.getOrderItems());
+        }
+    }
+
+    @Test
+    public void 스트리밍_export는_주문상품이_없는_주문도_포함() throws Exception {
+        //given
+        Member member = new Member();
+        member.setName("query-user-empty");
+        member.setAddress(new Address("aaa", "bbb", "ccc"));
+        em.persist(member);
+        Delivery delivery = new Delivery();
+        delivery.setAddress(member.getAddress());
+        Order empty = Order.createOrder(member, delivery);
+        em.persist(empty);
+        em.flush();
+        em.clear();
+
+        //when
+        List<OrderQueryDto> exported = new ArrayList<>();
+        orderQueryRepository.streamAllByDto(100, exported::add);
+        exported = mine(exported);
+
+        //then
+        assertEquals(4, exported.size());
+        for (OrderQueryDto order : exported) {
+            if (order.getOrderId().equals(empty.getId())) {
+                assertEquals("query-user-empty", order.getName());
+                assertEquals("aaa", order.getAddress().getCity());
+                assertTrue(order.getOrderItems().isEmpty(), "주문상품이 없는 주문은 빈 목록");
+            } else {
+                assertEquals(1, order.getOrderItems().size());
+            }
+        }
+    }
+
+    @Test
+    public void v4_N플러스1_감지() throws Exception {
+        orderQueryRepository.findOrderQueryDtos();
+
+        assertNPlusOne(3);
+    }
+
+    // 다른 테스트가 커밋한 주문 제외
+    private static List<OrderQueryDto> mine(List<OrderQueryDto> orders) {
+        return orders.stream()
+                .filter(o -> o.getName().startsWith("query-user-"))
+                .collect(Collectors.toList());
+    }
+
+    private void createOrder(String memberName) {
+        Member member = new Member();
+        member.setName(memberName);
+        member.setAddress(new Address("aaa", "bbb", "ccc"));
+        em.persist(member);
+
+        Book book = new Book();
+        book.setName("book");
+        book.setPrice(10000);
+        book.setStockQuantity(10);
+        em.persist(book);
+
+        Delivery delivery = new Delivery();
+        delivery.setAddress(member.getAddress());
+        em.persist(Order.createOrder(member, delivery, OrderItem.createOrderItem(book, book.getPrice(), 1)));
+    }
+}
@@ -0,0 +1,81 @@
+package jpabook.jpashop.repository.order.stats;
+
+import jpabook.jpashop.domain.*;
+import jpabook.jpashop.domain.item.Book;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 다른 테스트의 주문과 섞이지 않도록 주문일을 과거 날짜로 고정
+@SpringBootTest
+@Transactional
+class OrderStatsRepositoryTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2000, 1, 1, 10, 0);
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired OrderStatsRepository orderStatsRepository;
+
+    @Test
+    public void 일별_상태별_매출_집계() throws Exception {
+        //given
+        Book book = createBook("stats-book", 1000);
+        createOrder("stats-user-1", book, 2, DAY);                  // 2000
+        createOrder("stats-user-2", book, 3, DAY.plusHours(5));     // 3000
+        createOrder("stats-user-3", book, 1, DAY.plusDays(1)).cancel();
+        em.flush();
+        em.clear();
+
+        //when
+        List<OrderStatsDto> daily = orderStatsRepository.findDailyStats(DAY.minusDays(1), DAY.plusDays(2), OrderStatus.ORDER);
+        List<OrderStatsDto> status = orderStatsRepository.findStatusStats(DAY.minusDays(1), DAY.plusDays(2));
+        List<ItemSalesDto> topItems = orderStatsRepository.findTopItems(DAY.minusDays(1), DAY.plusDays(2), null, 10);
+
+        //then
+        assertEquals(1, daily.size());
+        assertEquals("2000-01-01", daily.get(0).getKey());
+        assertEquals(5000, daily.get(0).getRevenue());
+        assertEquals(2, daily.get(0).getOrderCount());
+        assertEquals(2500, daily.get(0).getAverageBasket());
+
+        assertEquals(2, status.size());
+        OrderStatsDto canceled = status.stream().filter(s -> s.getKey().equals("CANCEL")).findFirst().orElseThrow();
+        assertEquals(1000, canceled.getRevenue());
+
+        assertEquals(1, topItems.size());
+        assertEquals(6, topItems.get(0).getQuantity());
+    }
+
+    private Book createBook(String name, int price) {
+        Book book = new Book();
+        book.setName(name);
+        book.setPrice(price);
+        book.setStockQuantity(100);
+        em.persist(book);
+        return book;
+    }
+
+    private Order createOrder(String memberName, Book book, int count, LocalDateTime orderDate) {
+        Member member = new Member();
+        member.setName(memberName);
+        member.setAddress(new Address("aaa", "bbb", "ccc"));
+        em.persist(member);
+
+        Delivery delivery = new Delivery();
+        delivery.setAddress(member.getAddress());
+        Order order = Order.createOrder(member, delivery, OrderItem.createOrderItem(book, book.getPrice(), count));
+        order.setOrderDate(orderDate);
+        em.persist(order);
+        return order;
+    }
+}
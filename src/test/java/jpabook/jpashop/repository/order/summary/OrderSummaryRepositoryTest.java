@@ -0,0 +1,98 @@
+package jpabook.jpashop.repository.order.summary;
+
+import jpabook.jpashop.domain.*;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.repository.order.query.OrderQueryDto;
+import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import jpabook.jpashop.service.OrderSummaryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toMap;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 이벤트 없이 저장된 주문(요약 테이블 도입 전 주문, 시드 데이터)의 요약 backfill 검증
+ */
+@SpringBootTest
+@Transactional
+class OrderSummaryRepositoryTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired OrderSummaryService orderSummaryService;
+    @Autowired OrderSummaryRepository orderSummaryRepository;
+    @Autowired OrderQueryRepository orderQueryRepository;
+
+    @Test
+    public void backfill후_요약과_v5_조회_일치() throws Exception {
+        //given (이벤트 없이 저장 => 요약 없음)
+        Set<Long> orderIds = new HashSet<>();
+        orderIds.add(createOrder("summary-user-1", 1, 2));
+        orderIds.add(createOrder("summary-user-2", 3));
+        em.flush();
+        em.clear();
+        assertTrue(orderIds.stream().allMatch(id -> orderSummaryRepository.findOne(id) == null));
+
+        //when
+        int inserted = orderSummaryService.backfill();
+        em.clear();
+
+        //then
+        assertTrue(inserted >= orderIds.size());
+        assertEquals(0, orderSummaryService.backfill(), "이미 요약이 있는 주문은 다시 넣지 않음");
+
+        Map<Long, OrderSummaryDto> summaries = orderSummaryRepository.findSummaryDtos(0, Integer.MAX_VALUE).stream()
+                .filter(s -> orderIds.contains(s.getOrderId()))
+                .collect(toMap(OrderSummaryDto::getOrderId, Function.identity()));
+        List<OrderQueryDto> orders = orderQueryRepository.findAllByDto_Optimization();
+        assertEquals(orderIds.size(), summaries.size(), "mode=summary가 모든 주문을 반환");
+        for (OrderQueryDto order : orders) {
+            if (!orderIds.contains(order.getOrderId())) {
+                continue;
+            }
+            OrderSummaryDto summary = summaries.get(order.getOrderId());
+            assertEquals(order.getName(), summary.getName());
+            assertEquals(order.getOrderStatus(), summary.getOrderStatus());
+            assertEquals(order.getAddress().getCity(), summary.getAddress().getCity());
+            assertEquals(order.getAddress().getZipcode(), summary.getAddress().getZipcode());
+            assertEquals(order.getOrderItems().size(), summary.getLineCount());
+            assertEquals(order.getOrderItems().stream().mapToInt(oi -> oi.getOrderPrice() * oi.getCount()).sum(),
+                    summary.getTotalPrice());
+        }
+    }
+
+    private Long createOrder(String memberName, int... counts) {
+        Member member = new Member();
+        member.setName(memberName);
+        member.setAddress(new Address("aaa", "bbb", "ccc"));
+        em.persist(member);
+
+        OrderItem[] orderItems = new OrderItem[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            Book book = new Book();
+            book.setName("summary-book-" + i);
+            book.setPrice(10000 * (i + 1));
+            book.setStockQuantity(10);
+            em.persist(book);
+            orderItems[i] = OrderItem.createOrderItem(book, book.getPrice(), counts[i]);
+        }
+
+        Delivery delivery = new Delivery();
+        delivery.setAddress(member.getAddress());
+        Order order = Order.createOrder(member, delivery, orderItems);
+        em.persist(order);
+        return order.getId();
+    }
+}
@@ -0,0 +1,66 @@
+package jpabook.jpashop.search;
+
+import jpabook.jpashop.repository.MemberRepository;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class MemberNameFilterTest {
+
+    private static final int NAMES = 10000;
+
+    @Test
+    public void 추가한_이름은_항상_있음() throws Exception {
+        //given
+        MemberNameFilter filter = readyFilter();
+
+        //when
+        for (int i = 0; i < NAMES; i++) {
+            filter.put("member-" + i);
+        }
+
+        //then
+        for (int i = 0; i < NAMES; i++) {
+            assertTrue(filter.mightContain("member-" + i));
+        }
+        assertTrue(filter.mightContain(" MEMBER-1 "), "대소문자, 앞뒤 공백 무시");
+    }
+
+    @Test
+    public void 없는_이름_오탐률() throws Exception {
+        //given
+        MemberNameFilter filter = readyFilter();
+        for (int i = 0; i < NAMES; i++) {
+            filter.put("member-" + i);
+        }
+
+        //when
+        int falsePositives = 0;
+        for (int i = 0; i < NAMES; i++) {
+            if (filter.mightContain("new-member-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        //then
+        assertTrue(falsePositives < NAMES * 0.03, "오탐률 1% 설정 (여유 3%): " + falsePositives);
+    }
+
+    @Test
+    public void 구성_전에는_항상_쿼리() throws Exception {
+        //given
+        MemberNameFilter filter = new MemberNameFilter(mock(MemberRepository.class), NAMES, 0.01);
+
+        //then
+        assertFalse(filter.isReady());
+        assertTrue(filter.mightContain("anyone"));
+        assertFalse(filter.mightContain(null));
+    }
+
+    private static MemberNameFilter readyFilter() {
+        MemberNameFilter filter = new MemberNameFilter(mock(MemberRepository.class), NAMES, 0.01);
+        filter.build(); // 회원 없음
+        return filter;
+    }
+}
@@ -0,0 +1,96 @@
+package jpabook.jpashop.search;
+
+import jpabook.jpashop.domain.event.MemberJoinedEvent;
+import jpabook.jpashop.domain.event.MemberNameChangedEvent;
+import jpabook.jpashop.repository.MemberRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class MemberNameIndexTest {
+
+    @Test
+    public void 대소문자_공백_무시() throws Exception {
+        //given
+        MemberNameIndex index = newIndex(mock(MemberRepository.class));
+        index.build();
+        index.onMemberJoined(new MemberJoinedEvent(1L, "Kim Young"));
+
+        //then
+        assertEquals(Set.of(1L), index.search("kim", 10));
+        assertEquals(Set.of(1L), index.search(" YOUNG ", 10));
+        assertEquals(Set.of(1L), index.search("M YOU", 10));
+        assertTrue(index.search("lee", 10).isEmpty());
+    }
+
+    @Test
+    public void 짧은_검색어와_후보가_많은_검색어는_색인을_쓰지_않음() throws Exception {
+        //given
+        MemberNameIndex index = newIndex(mock(MemberRepository.class));
+        index.build();
+        for (long id = 1; id <= 5; id++) {
+            index.onMemberJoined(new MemberJoinedEvent(id, "park-" + id));
+        }
+
+        //then
+        assertNull(index.search("pa", 10), "3글자 미만은 like 검색");
+        assertNull(index.search("park", 4), "후보가 maxResults개를 넘으면 like 검색");
+        assertEquals(Set.of(1L, 2L, 3L, 4L, 5L), index.search("park", 5));
+    }
+
+    @Test
+    public void 이름_변경시_이전_이름은_지움() throws Exception {
+        //given
+        MemberNameIndex index = newIndex(mock(MemberRepository.class));
+        index.build();
+        index.onMemberJoined(new MemberJoinedEvent(1L, "choi"));
+        index.onMemberJoined(new MemberJoinedEvent(2L, "choi"));
+
+        //when
+        index.onMemberNameChanged(new MemberNameChangedEvent(1L, "choi", "jung"));
+
+        //then
+        assertEquals(Set.of(2L), index.search("choi", 10));
+        assertEquals(Set.of(1L), index.search("jung", 10));
+    }
+
+    @Test
+    public void like_패턴은_색인과_같은_규칙() throws Exception {
+        assertEquals("%kim%", MemberNameIndex.likePattern(" KIM "));
+        assertEquals("%a!%b!_c!!%", MemberNameIndex.likePattern("A%b_C!"), "와일드카드는 문자 그대로 검색");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void 색인중_변경은_조회한_이름으로_덮어쓰지_않음() throws Exception {
+        //given
+        MemberRepository memberRepository = mock(MemberRepository.class);
+        MemberNameIndex index = newIndex(memberRepository);
+        doAnswer(invocation -> {
+            index.onMemberNameChanged(new MemberNameChangedEvent(1L, "old-name", "new-name")); // 조회 직후 커밋된 이름 변경
+            ((Consumer<Object[]>) invocation.getArgument(2)).accept(new Object[]{1L, "old-name"});
+            return null;
+        }).when(memberRepository).streamIdAndName(anyLong(), anyInt(), any());
+
+        //when
+        index.build();
+
+        //then
+        assertTrue(index.isReady());
+        assertEquals(Set.of(1L), index.search("new-name", 10));
+        assertTrue(index.search("old-name", 10).isEmpty());
+    }
+
+    private static MemberNameIndex newIndex(MemberRepository memberRepository) {
+        return new MemberNameIndex(memberRepository, mock(PlatformTransactionManager.class), true);
+    }
+}
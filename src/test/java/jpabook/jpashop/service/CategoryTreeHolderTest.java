@@ -0,0 +1,56 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Category;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 카테고리 변경이 커밋되면 트리 스냅샷을 다시 만듦 (테스트 트랜잭션 없이 실제로 커밋)
+ */
+@SpringBootTest
+class CategoryTreeHolderTest {
+
+    @Autowired CategoryService categoryService;
+    @Autowired CategoryTreeHolder categoryTreeHolder;
+
+    @Test
+    public void 카테고리_추가_커밋후_트리_재생성() throws Exception {
+        //given
+        Category parent = new Category();
+        parent.setName("holder-parent");
+        Long parentId = categoryService.saveCategory(parent);
+
+        Category child = new Category();
+        child.setName("holder-child");
+        parent.addChildCategory(child);
+
+        //when
+        Long childId = categoryService.saveCategory(child);
+
+        //then
+        CategoryTree tree = categoryTreeHolder.getTree();
+        assertTrue(tree.contains(childId));
+        assertEquals(Set.of(parentId, childId), new HashSet<>(tree.descendantsOf(parentId)));
+        assertEquals(parentId, tree.ancestorsOf(childId).get(0));
+    }
+
+    @Test
+    public void 이름_변경_커밋후_트리_재생성() throws Exception {
+        //given
+        Category category = new Category();
+        category.setName("holder-before");
+        Long id = categoryService.saveCategory(category);
+
+        //when
+        categoryService.updateCategory(id, "holder-after");
+
+        //then
+        assertEquals("holder-after", categoryTreeHolder.getTree().nameOf(id));
+    }
+}
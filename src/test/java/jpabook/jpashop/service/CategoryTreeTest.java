@@ -0,0 +1,66 @@
+package jpabook.jpashop.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CategoryTreeTest {
+
+    /*
+        1 도서
+        ├─ 2 소설
+        │  └─ 4 추리
+        └─ 3 IT
+        5 음반
+     */
+    private final CategoryTree tree = CategoryTree.build(rows(
+            new Object[]{1L, null, "도서"},
+            new Object[]{2L, 1L, "소설"},
+            new Object[]{3L, 1L, "IT"},
+            new Object[]{4L, 2L, "추리"},
+            new Object[]{5L, null, "음반"}));
+
+    @Test
+    public void 중첩_카테고리_하위_트리() throws Exception {
+        assertEquals(Set.of(1L, 2L, 3L, 4L), new HashSet<>(tree.descendantsOf(1L)), "자기 자신과 손자까지 포함");
+        assertEquals(Set.of(2L, 4L), new HashSet<>(tree.descendantsOf(2L)));
+        assertEquals(List.of(2L, 1L), tree.ancestorsOf(4L), "가까운 부모부터");
+        assertEquals(Set.of(1L, 5L), new HashSet<>(tree.roots()));
+    }
+
+    @Test
+    public void 리프_카테고리는_자기_자신만() throws Exception {
+        assertEquals(List.of(4L), tree.descendantsOf(4L));
+        assertEquals(List.of(5L), tree.descendantsOf(5L));
+        assertTrue(tree.childrenOf(3L).isEmpty());
+    }
+
+    @Test
+    public void 없는_카테고리() throws Exception {
+        assertFalse(tree.contains(99L));
+        assertTrue(tree.descendantsOf(99L).isEmpty());
+        assertTrue(tree.ancestorsOf(99L).isEmpty());
+        assertNull(tree.nameOf(99L));
+    }
+
+    @Test
+    public void 순환_데이터에서도_멈춤() throws Exception {
+        //when
+        CategoryTree cyclic = CategoryTree.build(rows(
+                new Object[]{1L, 2L, "a"},
+                new Object[]{2L, 1L, "b"}));
+
+        //then
+        assertEquals(Set.of(1L, 2L), new HashSet<>(cyclic.descendantsOf(1L)));
+        assertEquals(List.of(2L), cyclic.ancestorsOf(1L));
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
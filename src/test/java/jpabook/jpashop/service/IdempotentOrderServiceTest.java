@@ -0,0 +1,154 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.exception.IdempotencyKeyMismatchException;
+import jpabook.jpashop.repository.ItemRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 같은 요청 키로 다시 주문하면 주문/재고 차감 없이 처음 주문 id를 반환하는지 검증
+ * 키 중복은 커밋/롤백으로 판단하므로 @Transactional을 붙이지 않음
+ */
+@SpringBootTest
+class IdempotentOrderServiceTest {
+
+    private static final int STOCK = 10;
+
+    @Autowired IdempotentOrderService idempotentOrderService;
+    @Autowired ItemRepository itemRepository;
+    @Autowired TransactionTemplate transactionTemplate;
+    @Autowired EntityManager em;
+
+    @Test
+    public void 같은_키로_다시_주문하면_처음_주문_id() throws Exception {
+        //given
+        Long memberId = createMember("idempotent-user-1");
+        Long itemId = createBook();
+        String key = UUID.randomUUID().toString();
+
+        //when
+        Long first = idempotentOrderService.order(key, memberId, itemId, 2);
+        Long second = idempotentOrderService.order(key, memberId, itemId, 2);
+
+        //then
+        assertEquals(first, second);
+        assertEquals(STOCK - 2, findStockQuantity(itemId), "재고는 한 번만 차감");
+    }
+
+    @Test
+    public void 캐시에서_밀려난_키는_테이블로_중복_차단() throws Exception {
+        //given
+        Long memberId = createMember("idempotent-user-2");
+        Long itemId = createBook();
+        String key = UUID.randomUUID().toString();
+        Long first = idempotentOrderService.order(key, memberId, itemId, 2);
+        idempotentOrderService.forget(key);
+
+        //when
+        Long second = idempotentOrderService.order(key, memberId, itemId, 2);
+
+        //then
+        assertEquals(first, second);
+        assertEquals(STOCK - 2, findStockQuantity(itemId), "중복 주문의 재고 차감은 롤백");
+    }
+
+    @Test
+    public void 키가_다르면_각각_주문() throws Exception {
+        //given
+        Long memberId = createMember("idempotent-user-3");
+        Long itemId = createBook();
+
+        //when
+        Long first = idempotentOrderService.order(UUID.randomUUID().toString(), memberId, itemId, 1);
+        Long second = idempotentOrderService.order(UUID.randomUUID().toString(), memberId, itemId, 1);
+
+        //then
+        assertNotEquals(first, second);
+        assertEquals(STOCK - 2, findStockQuantity(itemId));
+    }
+
+    @Test
+    public void 같은_키_동시_주문은_한번만() throws Exception {
+        //given
+        Long memberId = createMember("idempotent-user-4");
+        Long itemId = createBook();
+        String key = UUID.randomUUID().toString();
+        int threads = 16;
+
+        //when
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        Set<Long> orderIds = ConcurrentHashMap.newKeySet();
+        Future<?>[] futures = new Future<?>[threads];
+        for (int i = 0; i < threads; i++) {
+            futures[i] = executor.submit(() -> {
+                start.await();
+                orderIds.add(idempotentOrderService.order(key, memberId, itemId, 1));
+                return null;
+            });
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        //then
+        assertEquals(1, orderIds.size(), "모든 요청이 같은 주문 id");
+        assertEquals(STOCK - 1, findStockQuantity(itemId), "재고는 한 번만 차감");
+    }
+
+    @Test
+    public void 같은_키로_다른_요청은_거부() throws Exception {
+        //given
+        Long memberId = createMember("idempotent-user-5");
+        Long otherId = createMember("idempotent-user-6");
+        Long itemId = createBook();
+        String key = UUID.randomUUID().toString();
+        idempotentOrderService.order(key, memberId, itemId, 2);
+
+        //then
+        assertThrows(IdempotencyKeyMismatchException.class, () -> idempotentOrderService.order(key, otherId, itemId, 2), "다른 회원");
+        assertThrows(IdempotencyKeyMismatchException.class, () -> idempotentOrderService.order(key, memberId, itemId, 3), "다른 수량");
+        idempotentOrderService.forget(key);
+        assertThrows(IdempotencyKeyMismatchException.class, () -> idempotentOrderService.order(key, otherId, itemId, 2), "테이블로 확인");
+        assertEquals(STOCK - 2, findStockQuantity(itemId), "거부된 요청의 재고 차감은 롤백");
+    }
+
+    private Long createMember(String name) {
+        return transactionTemplate.execute(status -> {
+            Member member = new Member();
+            member.setName(name);
+            member.setAddress(new Address("aaa", "bbb", "ccc"));
+            em.persist(member);
+            return member.getId();
+        });
+    }
+
+    private Long createBook() {
+        return transactionTemplate.execute(status -> {
+            Book book = new Book();
+            book.setName("idempotent-book");
+            book.setPrice(10000);
+            book.setStockQuantity(STOCK);
+            em.persist(book);
+            return book.getId();
+        });
+    }
+
+    private int findStockQuantity(Long itemId) {
+        return transactionTemplate.execute(status -> itemRepository.findStockQuantity(itemId));
+    }
+}
@@ -0,0 +1,125 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.event.StockChangedEvent;
+import jpabook.jpashop.domain.item.Album;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.domain.item.Movie;
+import jpabook.jpashop.importer.ItemImportFormat;
+import jpabook.jpashop.importer.ItemImportResult;
+import jpabook.jpashop.repository.ItemRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+
+// 청크 단위 저장을 확인하기 위해 batch-size를 작게 설정, import는 청크마다 커밋하므로 테스트 트랜잭션 없이 실행
+@SpringBootTest
+@TestPropertySource(properties = "jpashop.import.batch-size=2")
+@RecordApplicationEvents
+class ItemImportServiceTest {
+
+    @Autowired ItemImportService itemImportService;
+    @Autowired ItemRepository itemRepository;
+    @Autowired ApplicationEvents applicationEvents;
+
+    @Test
+    public void CSV_상품_일괄등록() throws Exception {
+        //given
+        String csv = "dtype,name,price,stockQuantity,author,isbn,artist,director\n" +
+                "B,import-csv-book,10000,10,kim,isbn-1,,\n" +
+                "A,import-csv-album,20000,5,,,iu,\n" +
+                "M,import-csv-movie,30000,3,,,,bong\n" +
+                "X,import-csv-unknown,1000,1,,,,\n" +
+                "B,import-csv-negative,-1,1,,,,\n";
+
+        //when
+        ItemImportResult result = import_(csv, ItemImportFormat.CSV);
+
+        //then
+        assertEquals(3, result.getInserted());
+        assertEquals(2, result.getFailed());
+        assertEquals(List.of(4L, 5L), result.getFailures().stream()
+                .map(ItemImportResult.Failure::getRowNumber).collect(toList()));
+
+        assertEquals("kim", ((Book) findByName("import-csv-book")).getAuthor());
+        assertEquals("iu", ((Album) findByName("import-csv-album")).getArtist());
+        assertEquals("bong", ((Movie) findByName("import-csv-movie")).getDirector());
+    }
+
+    @Test
+    public void JSON_id로_기존상품_수정() throws Exception {
+        //given
+        import_("[{\"dtype\":\"B\",\"name\":\"import-json-book\",\"price\":1000,\"stockQuantity\":1}]",
+                ItemImportFormat.JSON);
+        Long id = findByName("import-json-book").getId();
+
+        //when
+        ItemImportResult result = import_(
+                "{\"dtype\":\"B\",\"id\":" + id + ",\"name\":\"import-json-book\",\"price\":2000,\"stockQuantity\":7}\n" +
+                "{\"dtype\":\"A\",\"id\":" + id + ",\"name\":\"import-json-book\",\"price\":3000,\"stockQuantity\":7}\n",
+                ItemImportFormat.JSON);
+
+        //then
+        assertEquals(1, result.getUpdated());
+        assertEquals(1, result.getFailed()); // Book을 Album으로 수정할 수 없음
+        Item item = itemRepository.findOne(id);
+        assertEquals(2000, item.getPrice());
+        assertEquals(7, item.getStockQuantity());
+    }
+
+    @Test
+    public void 재고_수정은_차이만큼_반영() throws Exception {
+        //given
+        import_("[{\"dtype\":\"M\",\"name\":\"import-stock-movie\",\"price\":1000,\"stockQuantity\":1}]",
+                ItemImportFormat.JSON);
+        Long id = findByName("import-stock-movie").getId();
+        applicationEvents.clear();
+
+        //when
+        import_("[{\"dtype\":\"M\",\"id\":" + id + ",\"name\":\"import-stock-movie\",\"price\":1000,\"stockQuantity\":7}]",
+                ItemImportFormat.JSON);
+        import_("[{\"dtype\":\"M\",\"id\":" + id + ",\"name\":\"import-stock-movie\",\"price\":1000,\"stockQuantity\":2}]",
+                ItemImportFormat.JSON);
+
+        //then
+        assertEquals(2, itemRepository.findOne(id).getStockQuantity());
+        assertEquals(List.of(6, -5), applicationEvents.stream(StockChangedEvent.class)
+                .filter(e -> id.equals(e.getItemId()))
+                .map(StockChangedEvent::getQuantity)
+                .collect(toList()), "StockService를 거쳐 재고 변경 이벤트 발행");
+    }
+
+    @Test
+    public void 없는_id는_실패() throws Exception {
+        //when
+        ItemImportResult result = import_(
+                "[{\"dtype\":\"B\",\"id\":" + Long.MAX_VALUE + ",\"name\":\"import-unknown-id\",\"price\":1000,\"stockQuantity\":1}]",
+                ItemImportFormat.JSON);
+
+        //then
+        assertEquals(0, result.getInserted());
+        assertEquals(1, result.getFailed(), "id는 직접 지정할 수 없음");
+    }
+
+    private ItemImportResult import_(String content, ItemImportFormat format) {
+        return itemImportService.importItems(
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), format);
+    }
+
+    private Item findByName(String name) {
+        return itemRepository.findAll().stream()
+                .filter(i -> name.equals(i.getName()))
+                .findFirst()
+                .orElseThrow();
+    }
+}
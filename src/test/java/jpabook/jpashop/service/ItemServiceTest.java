@@ -0,0 +1,160 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.controller.BookForm;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.exception.ItemVersionConflictException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 상품 캐시 무효화, 수정 충돌 검증
+ * 캐시 evict는 커밋 후에 반영되므로 @Transactional을 붙이지 않음
+ */
+@SpringBootTest
+class ItemServiceTest {
+
+    @Autowired ItemService itemService;
+    @Autowired OrderService orderService;
+    @Autowired TransactionTemplate transactionTemplate;
+    @Autowired EntityManager em;
+
+    @Test
+    public void 주문후_캐시된_상품_재고_갱신() throws Exception {
+        //given
+        Long memberId = createMember("item-cache-user-1");
+        Long itemId = createBook(10);
+        assertEquals(10, itemService.findItem(itemId).getStockQuantity()); // 캐시에 올림
+
+        //when
+        orderService.order(memberId, itemId, 3);
+
+        //then
+        assertEquals(7, itemService.findItem(itemId).getStockQuantity(), "재고 변경 커밋 후 캐시가 비워짐");
+        assertTrue(itemService.findItems().stream()
+                .anyMatch(i -> i.getId().equals(itemId) && i.getStockQuantity() == 7), "상품 목록 캐시도 비워짐");
+    }
+
+    @Test
+    public void 롤백된_수정은_캐시를_비우지_않음() throws Exception {
+        //given
+        Long itemId = createBook(10);
+        ItemView cached = itemService.findItem(itemId);
+
+        //when
+        transactionTemplate.executeWithoutResult(status -> {
+            Book book = em.find(Book.class, itemId);
+            book.setName("changed");
+            itemService.saveItem(book);
+            status.setRollbackOnly();
+        });
+
+        //then
+        assertSame(cached, itemService.findItem(itemId), "롤백되면 evict도 반영되지 않음");
+    }
+
+    @Test
+    public void 캐시된_상품_목록은_변경할_수_없음() throws Exception {
+        //given
+        Book book = new Book();
+        book.setName("cached-list-book");
+        book.setPrice(10000);
+        book.setStockQuantity(10);
+        itemService.saveItem(book); // 커밋 후 상품 목록 캐시를 비움
+        Long itemId = book.getId();
+
+        //when
+        List<ItemView> items = itemService.findItems();
+
+        //then
+        assertTrue(items.stream().anyMatch(i -> i.getId().equals(itemId)));
+        assertThrows(UnsupportedOperationException.class, items::clear, "여러 요청이 공유하는 캐시 값");
+        assertSame(items, itemService.findItems());
+    }
+
+    @Test
+    public void 수정은_재고_차이만_반영() throws Exception {
+        //given
+        Long itemId = createBook(10);
+        BookForm form = editForm(itemId);
+        form.setPrice(20000);
+        form.setStockQuantity(15);
+
+        //when
+        itemService.updateItem(itemId, form);
+
+        //then
+        Item item = itemService.findItemForEdit(itemId);
+        assertEquals(20000, item.getPrice());
+        assertEquals(15, item.getStockQuantity());
+    }
+
+    @Test
+    public void 화면을_연_뒤_주문되면_수정_충돌() throws Exception {
+        //given
+        Long memberId = createMember("item-edit-user-1");
+        Long itemId = createBook(10);
+        BookForm form = editForm(itemId);
+        orderService.order(memberId, itemId, 3);
+
+        //when
+        form.setStockQuantity(20);
+
+        //then
+        assertThrows(ItemVersionConflictException.class, () -> itemService.updateItem(itemId, form));
+        assertEquals(7, itemService.findItemForEdit(itemId).getStockQuantity(), "주문된 재고를 덮어쓰지 않음");
+    }
+
+    @Test
+    public void 버전없는_수정은_거부() throws Exception {
+        //given
+        Long itemId = createBook(10);
+        BookForm form = editForm(itemId);
+        form.setVersion(null);
+
+        //then
+        assertThrows(IllegalArgumentException.class, () -> itemService.updateItem(itemId, form));
+    }
+
+    private BookForm editForm(Long itemId) {
+        Book book = (Book) itemService.findItemForEdit(itemId);
+        BookForm form = new BookForm();
+        form.setId(book.getId());
+        form.setVersion(book.getVersion());
+        form.setName(book.getName());
+        form.setPrice(book.getPrice());
+        form.setStockQuantity(book.getStockQuantity());
+        form.setOriginalStockQuantity(book.getStockQuantity());
+        return form;
+    }
+
+    private Long createMember(String name) {
+        return transactionTemplate.execute(status -> {
+            Member member = new Member();
+            member.setName(name);
+            member.setAddress(new Address("aaa", "bbb", "ccc"));
+            em.persist(member);
+            return member.getId();
+        });
+    }
+
+    private Long createBook(int stockQuantity) {
+        return transactionTemplate.execute(status -> {
+            Book book = new Book();
+            book.setName("cached-book");
+            book.setPrice(10000);
+            book.setStockQuantity(stockQuantity);
+            em.persist(book);
+            return book.getId();
+        });
+    }
+}
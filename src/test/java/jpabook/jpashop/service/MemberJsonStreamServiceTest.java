@@ -0,0 +1,81 @@
+package jpabook.jpashop.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.repository.MemberRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class MemberJsonStreamServiceTest {
+
+    @Autowired MemberJsonStreamService memberJsonStreamService;
+    @Autowired MemberRepository memberRepository;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired EntityManager em;
+
+    @Test
+    public void 키셋_페이지_순회() throws Exception {
+        //given
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Member member = new Member();
+            member.setName("stream-member-" + i);
+            memberRepository.save(member);
+            ids.add(member.getId());
+        }
+        em.flush();
+        Long before = ids.get(0) - 1;
+
+        //when
+        JsonNode first = write(before, 3);
+        JsonNode second = write(first.get("next").asLong(), 3);
+
+        //then
+        assertEquals(3, first.get("count").asInt());
+        assertEquals(ids.get(0), first.get("data").get(0).get("id").asLong());
+        assertEquals("stream-member-0", first.get("data").get(0).get("name").asText());
+        assertTrue(first.get("next").isNumber(), "next는 숫자로 씀");
+        assertEquals(ids.get(2), first.get("next").asLong());
+        assertEquals(ids.get(3), second.get("data").get(0).get("id").asLong());
+    }
+
+    @Test
+    public void 마지막_페이지는_next_null() throws Exception {
+        //given
+        Member member = new Member();
+        member.setName("stream-member-last");
+        memberRepository.save(member);
+        em.flush();
+
+        //when
+        JsonNode page = write(member.getId() - 1, 1000);
+
+        //then
+        assertTrue(page.get("next").isNull());
+        assertFalse(page.has("totalEstimate"));
+    }
+
+    @Test
+    public void limit_범위_초과_예외() throws Exception {
+        assertThrows(IllegalArgumentException.class,
+                () -> memberJsonStreamService.writeMembers(null, MemberJsonStreamService.MAX_LIMIT + 1, false, new ByteArrayOutputStream()));
+    }
+
+    private JsonNode write(Long after, int limit) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        memberJsonStreamService.writeMembers(after, limit, false, out);
+        return objectMapper.readTree(out.toByteArray());
+    }
+}
@@ -1,6 +1,7 @@
 package jpabook.jpashop.service;
 
 import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.exception.DuplicateMemberException;
 import jpabook.jpashop.repository.MemberRepository;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
@@ -50,4 +51,19 @@ class MemberServiceTest {
         //then
         assertThrows(IllegalStateException.class, ()->memberService.join(member2));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void 중복_회원_제약조건_예외() throws Exception {
+        //given
+        Member member1 = new Member();
+        member1.setName("kim2");
+        Member member2 = new Member();
+        member2.setName("kim2");
+
+        //when
+        memberService.join(member1); // 커밋 전이라 이름 필터에는 없음 => 중복 확인 쿼리 생략
+
+        //then
+        assertThrows(DuplicateMemberException.class, ()->memberService.join(member2));
+    }
+}
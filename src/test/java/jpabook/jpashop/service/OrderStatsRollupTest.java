@@ -0,0 +1,121 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.*;
+import jpabook.jpashop.domain.event.OrderCanceledEvent;
+import jpabook.jpashop.domain.event.OrderPlacedEvent;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.repository.order.stats.OrderStatsDto;
+import jpabook.jpashop.repository.order.stats.OrderStatsRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 시작시 적재한 일별 집계에 주문/취소 커밋 이벤트가 증감으로 반영되는지 검증 (DB 없이)
+ */
+class OrderStatsRollupTest {
+
+    private final LocalDate today = LocalDate.now();
+
+    @Test
+    public void 주문_커밋시_당일_집계_증가() throws Exception {
+        //given
+        OrderStatsRollup rollup = loaded(new OrderStatsDto(today.toString(), 1000, 1, 1));
+
+        //when
+        rollup.onOrderPlaced(new OrderPlacedEvent(order(10000, 2, 5000, 1)));
+        rollup.onOrderPlaced(new OrderPlacedEvent(order(3000, 1, 3000, 1)));
+
+        //then
+        OrderStatsDto stats = only(rollup.findDailyStats(today, today));
+        assertEquals(1000 + 25000 + 6000, stats.getRevenue());
+        assertEquals(3, stats.getOrderCount());
+        assertEquals(1 + 3 + 2, stats.getQuantity());
+    }
+
+    @Test
+    public void 취소_커밋시_주문분만큼_감소() throws Exception {
+        //given
+        OrderStatsRollup rollup = loaded(new OrderStatsDto(today.toString(), 1000, 1, 1));
+        Order order = order(10000, 2, 5000, 1);
+        rollup.onOrderPlaced(new OrderPlacedEvent(order));
+
+        //when
+        order.cancel();
+        rollup.onOrderCanceled(new OrderCanceledEvent(order));
+
+        //then
+        OrderStatsDto stats = only(rollup.findDailyStats(today, today));
+        assertEquals(1000, stats.getRevenue());
+        assertEquals(1, stats.getOrderCount());
+        assertEquals(1, stats.getQuantity());
+    }
+
+    @Test
+    public void 주문이_모두_취소된_날은_결과에서_빠짐() throws Exception {
+        //given
+        OrderStatsRollup rollup = loaded();
+        Order order = order(10000, 1, 5000, 1);
+        rollup.onOrderPlaced(new OrderPlacedEvent(order));
+
+        //when
+        order.cancel();
+        rollup.onOrderCanceled(new OrderCanceledEvent(order));
+
+        //then
+        assertTrue(rollup.findDailyStats(today, today).isEmpty());
+    }
+
+    @Test
+    public void 적재_기간_이전_주문은_반영하지_않음() throws Exception {
+        //given
+        OrderStatsRollup rollup = loaded();
+        Order order = order(10000, 1, 5000, 1);
+        order.setOrderDate(today.minusDays(30).atStartOfDay()); // rollup-days=7 밖
+
+        //when
+        rollup.onOrderPlaced(new OrderPlacedEvent(order));
+
+        //then
+        assertFalse(rollup.covers(order.getOrderDate().toLocalDate()));
+        assertTrue(rollup.findDailyStats(today.minusDays(30), today).isEmpty());
+    }
+
+    private static OrderStatsRollup loaded(OrderStatsDto... stats) {
+        OrderStatsRepository repository = mock(OrderStatsRepository.class);
+        when(repository.findDailyStats(any(), any(), eq(OrderStatus.ORDER))).thenReturn(List.of(stats));
+        OrderStatsRollup rollup = new OrderStatsRollup(repository, 7);
+        rollup.reload();
+        return rollup;
+    }
+
+    private static OrderStatsDto only(List<OrderStatsDto> stats) {
+        assertEquals(1, stats.size());
+        return stats.get(0);
+    }
+
+    // 상품 두 개짜리 주문 (가격, 수량) x 2
+    private static Order order(int price1, int count1, int price2, int count2) {
+        Member member = new Member();
+        member.setName("rollup-user");
+        Delivery delivery = new Delivery();
+        delivery.setAddress(new Address("aaa", "bbb", "ccc"));
+        return Order.createOrder(member, delivery,
+                OrderItem.createOrderItem(book(), price1, count1),
+                OrderItem.createOrderItem(book(), price2, count2));
+    }
+
+    private static Book book() {
+        Book book = new Book();
+        book.setName("rollup-book");
+        book.setStockQuantity(100);
+        return book;
+    }
+}
@@ -0,0 +1,182 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.exception.NotEnoughSotckException;
+import jpabook.jpashop.repository.ItemRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 동시 주문시 초과 판매도 덜 판매도 없는지(재고보다 많은 주문이면 정확히 재고만큼 판매), 동시 취소시 재고가 중복 복구되지 않는지 검증
+ * 예상한 실패(재고부족 등)가 아닌 예외는 테스트 실패
+ * 트랜잭션이 실제로 커밋되어야 하므로 @Transactional을 붙이지 않음
+ * 인기 상품은 칸마다 lease-size / stripes(5개)씩 나눠 담기도록 설정
+ */
+@SpringBootTest(properties = {"jpashop.stock.lease-size=40", "jpashop.stock.stripes=8"})
+class StockConcurrencyTest {
+
+    private static final int THREADS = 64;
+    private static final int STOCK = 50;
+
+    @Autowired OrderService orderService;
+    @Autowired ItemRepository itemRepository;
+    @Autowired HotStockCounter hotStockCounter;
+    @Autowired TransactionTemplate transactionTemplate;
+    @Autowired EntityManager em;
+
+    @Test
+    public void 동시_주문_초과판매_없음() throws Exception {
+        //given
+        Long memberId = createMember("stock-user-1");
+        Long itemId = createBook(STOCK);
+
+        //when
+        int success = orderConcurrently(memberId, itemId);
+
+        //then
+        assertEquals(STOCK, success, "재고만큼 모두 판매");
+        assertEquals(0, findStockQuantity(itemId), "품절");
+    }
+
+    @Test
+    public void 인기상품_동시_주문_초과판매_없음() throws Exception {
+        //given
+        Long memberId = createMember("stock-user-2");
+        Long itemId = createBook(STOCK);
+        hotStockCounter.markHot(itemId);
+
+        //when
+        int success = orderConcurrently(memberId, itemId);
+        hotStockCounter.unmarkHot(itemId);
+
+        //then
+        assertEquals(STOCK, success, "재고만큼 모두 판매 (lease 중인 재고도 판매됨)");
+        assertEquals(0, findStockQuantity(itemId), "품절, 메모리에 남은 재고 없음");
+    }
+
+    @Test
+    public void 인기상품_칸보다_큰_수량_동시_주문_초과판매_없음() throws Exception {
+        //given
+        Long memberId = createMember("stock-user-4");
+        Long itemId = createBook(70);
+        hotStockCounter.markHot(itemId);
+
+        //when
+        int success = runConcurrently(16, () -> orderService.order(memberId, itemId, 7), NotEnoughSotckException.class);
+        hotStockCounter.unmarkHot(itemId);
+
+        //then
+        assertEquals(10, success, "한 칸(5개)보다 큰 주문도 여러 칸과 DB 재고를 합쳐 재고만큼 모두 판매");
+        assertEquals(0, findStockQuantity(itemId), "품절, 메모리에 남은 재고 없음");
+    }
+
+    @Test
+    public void 스트라이프_여러_칸에서_모아서_차감() throws Exception {
+        //given
+        HotStockCounter.StripedStock stock = new HotStockCounter.StripedStock(8);
+        stock.spread(40);
+
+        //when
+        boolean taken = stock.tryTake(30);
+        boolean overTaken = stock.tryTake(11);
+
+        //then
+        assertTrue(taken, "칸마다 5개뿐이어도 합이 충분하면 차감");
+        assertFalse(overTaken, "합이 모자라면 실패");
+        assertEquals(10, stock.sum(), "실패한 차감은 모은 만큼 되돌려 놓음");
+    }
+
+    @Test
+    public void 동시_취소_재고_한번만_복구() throws Exception {
+        //given
+        Long memberId = createMember("stock-user-3");
+        Long itemId = createBook(STOCK);
+        Long orderId = orderService.order(memberId, itemId, 1);
+
+        //when
+        int success = runConcurrently(16, () -> orderService.cancelOrder(orderId),
+                IllegalStateException.class, OptimisticLockingFailureException.class);
+
+        //then
+        assertEquals(1, success, "취소는 한 번만 성공 (나머지는 버전 충돌 후 재시도에서 이미 취소된 주문)");
+        assertEquals(STOCK, findStockQuantity(itemId), "재고는 한 번만 복구");
+    }
+
+    // 재고보다 많은 스레드가 동시에 1개씩 주문
+    private int orderConcurrently(Long memberId, Long itemId) throws InterruptedException {
+        return runConcurrently(THREADS, () -> orderService.order(memberId, itemId, 1), NotEnoughSotckException.class);
+    }
+
+    // threads개의 스레드가 동시에 task 실행, 예외 없이 끝난 수를 반환 (expected가 아닌 예외가 나면 테스트 실패)
+    @SafeVarargs
+    private int runConcurrently(int threads, Runnable task, Class<? extends RuntimeException>... expected) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger success = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    task.run();
+                    success.incrementAndGet();
+                } catch (RuntimeException e) {
+                    if (Arrays.stream(expected).noneMatch(type -> type.isInstance(e))) {
+                        throw e;
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            try {
+                future.get(30, TimeUnit.SECONDS);
+            } catch (ExecutionException | TimeoutException e) {
+                fail(e);
+            }
+        }
+        executor.shutdown();
+        return success.get();
+    }
+
+    private Long createMember(String name) {
+        return transactionTemplate.execute(status -> {
+            Member member = new Member();
+            member.setName(name);
+            member.setAddress(new Address("aaa", "bbb", "ccc"));
+            em.persist(member);
+            return member.getId();
+        });
+    }
+
+    private Long createBook(int stockQuantity) {
+        return transactionTemplate.execute(status -> {
+            Book book = new Book();
+            book.setName("hot-book");
+            book.setPrice(10000);
+            book.setStockQuantity(stockQuantity);
+            em.persist(book);
+            return book.getId();
+        });
+    }
+
+    private int findStockQuantity(Long itemId) {
+        return transactionTemplate.execute(status -> itemRepository.findStockQuantity(itemId));
+    }
+}
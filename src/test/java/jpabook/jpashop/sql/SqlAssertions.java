@@ -0,0 +1,47 @@
+package jpabook.jpashop.sql;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 테스트에서 SQL 실행 수(쿼리 예산)를 고정하기 위한 검증 API
+ *
+ * SqlAssertions.startCounting();
+ * orderQueryRepository.findAllByDto_Optimization();
+ * SqlAssertions.assertSelectCount(2);
+ */
+public final class SqlAssertions {
+
+    private SqlAssertions() {
+    }
+
+    public static void startCounting() {
+        SqlStatementCounter.start();
+    }
+
+    public static void stopCounting() {
+        SqlStatementCounter.stop();
+    }
+
+    public static void assertSelectCount(long expected) {
+        assertEquals(expected, statistics().getSelects(), "실행된 select 수");
+    }
+
+    public static void assertStatementCount(long expected) {
+        assertEquals(expected, statistics().getStatements(), "실행된 SQL 수");
+    }
+
+    public static void assertNoNPlusOne(int threshold) {
+        assertEquals(0, statistics().findNPlusOneSuspects(threshold).size(),
+                () -> "N+1 의심 SQL: " + statistics().findNPlusOneSuspects(threshold));
+    }
+
+    public static void assertNPlusOne(int threshold) {
+        assertFalse(statistics().findNPlusOneSuspects(threshold).isEmpty(), "N+1이 감지되어야 함");
+    }
+
+    private static SqlStatistics statistics() {
+        SqlStatistics statistics = SqlStatementCounter.current();
+        assertNotNull(statistics, "startCounting()을 먼저 호출해야 함");
+        return statistics;
+    }
+}